@@ -1,9 +1,12 @@
 package com.neontech.sistema_escolar;
 
+import com.neontech.sistema_escolar.config.DicasExecucaoNativa;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(DicasExecucaoNativa.class) // Usadas só no processamento AOT (perfis aot e native)
 public class SistemaEscolarApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,12 @@
+package com.neontech.sistema_escolar.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as rotinas agendadas ({@code @Scheduled}). Os horários ficam em application.properties.
+ */
+@Configuration
+@EnableScheduling
+public class AgendamentoConfig {
+}
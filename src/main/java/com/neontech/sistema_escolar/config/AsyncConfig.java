@@ -0,0 +1,16 @@
+package com.neontech.sistema_escolar.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Habilita os métodos {@code @Async}.
+ * <p>
+ * Eles usam o executor padrão do Spring Boot ({@code applicationTaskExecutor}), que passa a criar
+ * threads virtuais quando {@code spring.threads.virtual.enabled=true}. O mesmo executor atende as
+ * respostas em streaming do Spring MVC.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,25 @@
+package com.neontech.sistema_escolar.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Habilita o cache de leituras dos serviços (Caffeine, configurado em application.properties).
+ * <p>
+ * A ordem faz o interceptor de cache envolver o de transação: assim os {@code @CacheEvict}
+ * só acontecem depois do commit, e uma leitura concorrente não recoloca no cache o dado antigo.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    /** Cache de cursos por ID. */
+    public static final String CURSOS = "cursos";
+
+    /** Cache da listagem de cursos ativos (página pública de matrículas). */
+    public static final String CURSOS_ATIVOS = "cursosAtivos";
+
+    /** Cache da listagem de cursos ativos já serializada em JSON (e comprimida), pronta para a resposta HTTP. */
+    public static final String CURSOS_ATIVOS_JSON = "cursosAtivosJson";
+}
@@ -0,0 +1,87 @@
+package com.neontech.sistema_escolar.config;
+
+import com.neontech.sistema_escolar.controller.OrcamentoSql;
+import com.neontech.sistema_escolar.repository.MonitorSql;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Registra quantos comandos SQL cada requisição da API executou, por método e rota
+ * (métrica {@code sistema_escolar.http.sql_por_requisicao}). Uma rota cujo máximo cresce com o volume de dados
+ * é sinal de N+1 consultas; requisições acima do limite geral ou do {@link OrcamentoSql} do endpoint
+ * também vão para o log, e com {@code sistema-escolar.sql.falhar-acima-do-orcamento=true} (perfil de testes)
+ * estourar o orçamento do endpoint lança exceção.
+ * <p>
+ * Nas respostas em streaming só é contado o que roda na thread da requisição.
+ */
+@Component
+public class ContagemSqlFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ContagemSqlFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int limite;
+    private final boolean falharAcimaDoOrcamento;
+
+    public ContagemSqlFilter(MeterRegistry meterRegistry,
+                             @Value("${sistema-escolar.sql.limite-por-requisicao}") int limite,
+                             @Value("${sistema-escolar.sql.falhar-acima-do-orcamento:false}") boolean falharAcimaDoOrcamento) {
+        this.meterRegistry = meterRegistry;
+        this.limite = limite;
+        this.falharAcimaDoOrcamento = falharAcimaDoOrcamento;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        MonitorSql.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int comandos = MonitorSql.encerrar();
+            // A rota com as variáveis ({id}), e não a URI, para não criar uma série por registro
+            Object rota = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = rota != null ? rota.toString() : "UNKNOWN";
+            DistributionSummary.builder("sistema_escolar.http.sql_por_requisicao")
+                    .description("Comandos SQL executados por requisição")
+                    .tags("method", request.getMethod(), "uri", uri)
+                    .register(meterRegistry)
+                    .record(comandos);
+            verificarOrcamento(request, uri, comandos);
+        }
+    }
+
+    private void verificarOrcamento(HttpServletRequest request, String uri, int comandos) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        OrcamentoSql orcamento = handler instanceof HandlerMethod metodo
+                ? metodo.getMethodAnnotation(OrcamentoSql.class) : null;
+        if (orcamento != null && comandos > orcamento.value()) {
+            String mensagem = String.format("%s %s executou %d comandos SQL (orçamento do endpoint: %d)",
+                    request.getMethod(), uri, comandos, orcamento.value());
+            if (falharAcimaDoOrcamento) {
+                throw new IllegalStateException(mensagem);
+            }
+            log.warn(mensagem);
+        } else if (comandos > limite) {
+            log.warn("{} {} executou {} comandos SQL (limite {})", request.getMethod(), uri, comandos, limite);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.neontech.sistema_escolar.config;
+
+import com.neontech.sistema_escolar.dto.AtualizacaoStatusPagamentoDTO;
+import com.neontech.sistema_escolar.dto.ConfirmacaoPagamentoDTO;
+import com.neontech.sistema_escolar.dto.CursoDTO;
+import com.neontech.sistema_escolar.dto.DivergenciaResumoDTO;
+import com.neontech.sistema_escolar.dto.ExecucaoInadimplenciaDTO;
+import com.neontech.sistema_escolar.dto.MatriculaDTO;
+import com.neontech.sistema_escolar.dto.NovaMatriculaDTO;
+import com.neontech.sistema_escolar.dto.PaginaDTO;
+import com.neontech.sistema_escolar.dto.PessoaDTO;
+import com.neontech.sistema_escolar.dto.RecebimentoConfirmacoesDTO;
+import com.neontech.sistema_escolar.dto.ReconciliacaoResumoDTO;
+import com.neontech.sistema_escolar.dto.ResultadoLoteDTO;
+import com.neontech.sistema_escolar.dto.ResumoFinanceiroCursoDTO;
+import com.neontech.sistema_escolar.dto.ResumoFinanceiroMensalDTO;
+import com.neontech.sistema_escolar.model.Curso;
+import com.neontech.sistema_escolar.model.Matricula;
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.model.ResumoFinanceiroCurso;
+import com.neontech.sistema_escolar.model.ResumoFinanceiroCursoId;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import com.neontech.sistema_escolar.repository.MatriculaRepository;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.projection.TargetAware;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Dicas de reflexão, proxies e recursos para a imagem nativa (GraalVM), registradas no processamento AOT.
+ * <p>
+ * O Spring já registra as entidades JPA, os repositórios e os tipos que aparecem na assinatura dos controllers.
+ * Ficam aqui os que ele não enxerga: DTOs montados pelo Hibernate em {@code select new ...}, tipos serializados
+ * direto pelo ObjectMapper (exportações em streaming, catálogo pré-serializado), projeções por interface e os
+ * proxies JDBC do datasource-proxy. Getters, setters e construtores gerados pelo Lombok são métodos comuns
+ * no bytecode e entram pelas dicas de binding.
+ */
+public class DicasExecucaoNativa implements RuntimeHintsRegistrar {
+
+    // Tipos lidos e escritos pelo Jackson (corpo das requisições e respostas)
+    private static final List<Class<?>> TIPOS_JSON = List.of(
+            AtualizacaoStatusPagamentoDTO.class, ConfirmacaoPagamentoDTO.class, CursoDTO.class,
+            DivergenciaResumoDTO.class, ExecucaoInadimplenciaDTO.class, MatriculaDTO.class, NovaMatriculaDTO.class,
+            PaginaDTO.class, PessoaDTO.class, RecebimentoConfirmacoesDTO.class, ReconciliacaoResumoDTO.class,
+            ResultadoLoteDTO.class, ResumoFinanceiroCursoDTO.class, ResumoFinanceiroMensalDTO.class,
+            Curso.class, Pessoa.class, Matricula.class, ResumoFinanceiroCurso.class, ResumoFinanceiroCursoId.class,
+            StatusPagamento.class);
+
+    // DTOs instanciados pelo Hibernate nas consultas com expressão construtora
+    private static final List<Class<?>> TIPOS_SELECT_NEW = List.of(
+            MatriculaDTO.class, ResumoFinanceiroCursoDTO.class, ResumoFinanceiroMensalDTO.class);
+
+    // Projeções por interface dos repositórios (o Spring Data cria um proxy para cada linha)
+    private static final List<Class<?>> PROJECOES = List.of(
+            MatriculaRepository.ParAlunoCurso.class, MatriculaRepository.MatriculaVencida.class,
+            MatriculaRepository.MatriculaAPagar.class, MatriculaRepository.SituacaoMatricula.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+        TIPOS_JSON.forEach(tipo -> binding.registerReflectionHints(hints.reflection(), tipo));
+        TIPOS_SELECT_NEW.forEach(tipo -> hints.reflection().registerType(tipo,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS));
+
+        for (Class<?> projecao : PROJECOES) {
+            hints.reflection().registerType(projecao, MemberCategory.INVOKE_PUBLIC_METHODS);
+            // Mesmas interfaces do proxy opaco criado pelo ProxyProjectionFactory
+            hints.proxies().registerJdkProxy(projecao, TargetAware.class, SpringProxy.class, DecoratingProxy.class);
+        }
+
+        // Conexões e comandos envolvidos pelo datasource-proxy (ProxyDataSourceConfig), na ordem das interfaces
+        // usada pela fábrica de proxies da biblioteca
+        for (Class<?> jdbc : List.of(Connection.class, Statement.class, PreparedStatement.class,
+                CallableStatement.class)) {
+            hints.proxies().registerJdkProxy(TypeReference.of(ProxyJdbcObject.class), TypeReference.of(jdbc));
+        }
+
+        // Conexão adiada do roteamento entre os pools de escrita e de leitura (RoteamentoDataSourceConfig)
+        hints.proxies().registerJdkProxy(ConnectionProxy.class);
+
+        // Regiões do cache de segundo nível (spring.jpa.properties.hibernate.javax.cache.uri)
+        hints.resources().registerPattern("ehcache.xml");
+    }
+}
@@ -0,0 +1,38 @@
+package com.neontech.sistema_escolar.config;
+
+import com.neontech.sistema_escolar.repository.MonitorSql;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Envolve o DataSource da aplicação em um proxy (datasource-proxy) que entrega cada comando SQL executado
+ * ao {@link MonitorSql}. O pool do Hikari continua por baixo e as suas métricas seguem publicadas normalmente.
+ * São envolvidos os pools de escrita e de leitura ({@link RoteamentoDataSourceConfig}), não o roteamento
+ * entre eles, para cada comando ser contado uma única vez e com o nome do pool que o executou.
+ */
+@Configuration
+public class ProxyDataSourceConfig {
+
+    // Estático para ser criado antes dos demais beans; o monitor só é obtido quando o DataSource aparece
+    @Bean
+    static BeanPostProcessor proxyDataSource(ObjectProvider<MonitorSql> monitorSql) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(monitorSql.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package com.neontech.sistema_escolar.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Separa leituras e escritas em dois pools de conexões:
+ * <ul>
+ *     <li>{@code dataSourceEscrita}: o banco principal ({@code spring.datasource.*} e
+ *         {@code spring.datasource.hikari.*}), usado por toda transação que pode gravar;</li>
+ *     <li>{@code dataSourceLeitura}: a réplica ({@code sistema-escolar.datasource.leitura.*}), usada pelas
+ *         transações {@code @Transactional(readOnly = true)}. Só existe quando
+ *         {@code sistema-escolar.datasource.leitura.jdbc-url} está configurada; sem ela tudo vai ao principal.</li>
+ * </ul>
+ * O DataSource entregue ao JPA, ao Flyway e ao JdbcTemplate é um {@link LazyConnectionDataSourceProxy}: a conexão
+ * real só é obtida no primeiro comando SQL, e a transação somente leitura já marcou a conexão como read-only
+ * nesse momento, o que a direciona ao pool de leitura. Como consequência, uma transação que não executa SQL
+ * (por exemplo, um acerto no cache de cursos) não ocupa conexão de nenhum dos pools.
+ * <p>
+ * A réplica pode estar alguns instantes atrás do principal. Para uma leitura atrasada não ficar guardada nos
+ * caches depois de uma alteração, as transações somente leitura consultam o cache de segundo nível e o de
+ * consultas do Hibernate, mas não gravam neles ({@link CacheStoreMode#BYPASS}); quem alimenta esses caches,
+ * e os caches de cursos da aplicação, são as transações de escrita, no principal.
+ */
+@Configuration
+public class RoteamentoDataSourceConfig {
+
+    // Com @ServiceConnection (testes com Testcontainers) o endereço do banco vem do contêiner
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource dataSourceEscrita(DataSourceProperties propriedades,
+                                       ObjectProvider<JdbcConnectionDetails> conexaoServico) {
+        DataSourceBuilder<HikariDataSource> builder = propriedades.initializeDataSourceBuilder()
+                .type(HikariDataSource.class);
+        conexaoServico.ifAvailable(conexao -> builder.driverClassName(conexao.getDriverClassName())
+                .url(conexao.getJdbcUrl())
+                .username(conexao.getUsername())
+                .password(conexao.getPassword()));
+        HikariDataSource dataSource = builder.build();
+        dataSource.setPoolName("escrita");
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "sistema-escolar.datasource.leitura", name = "jdbc-url")
+    @ConfigurationProperties("sistema-escolar.datasource.leitura")
+    HikariDataSource dataSourceLeitura() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("leitura");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("dataSourceEscrita") DataSource escrita,
+                          @Qualifier("dataSourceLeitura") ObjectProvider<DataSource> leitura) {
+        LazyConnectionDataSourceProxy roteamento = new LazyConnectionDataSourceProxy(escrita);
+        leitura.ifAvailable(roteamento::setReadOnlyDataSource);
+        return roteamento;
+    }
+
+    // Estático para ser criado antes da fábrica de EntityManagers; só existe junto com o pool de leitura
+    @Bean
+    @ConditionalOnProperty(prefix = "sistema-escolar.datasource.leitura", name = "jdbc-url")
+    static BeanPostProcessor leituraSemGravarNosCaches() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean fabrica) {
+                    fabrica.setJpaDialect(new HibernateJpaDialect() {
+                        @Override
+                        public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+                                throws SQLException {
+                            Object dados = super.beginTransaction(entityManager, definition);
+                            if (definition.isReadOnly()) {
+                                // Pela propriedade, e não só pelo modo da sessão: o find() lê daqui
+                                entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+                            }
+                            return dados;
+                        }
+                    });
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.neontech.sistema_escolar.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neontech.sistema_escolar.config.CacheConfig;
+import com.neontech.sistema_escolar.model.Curso;
+import com.neontech.sistema_escolar.service.CursoService;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Resposta de {@code GET /api/cursos/ativos} já serializada em JSON e comprimida em gzip.
+ * A página pública chama esse endpoint a cada visita: em vez de serializar e comprimir a lista a cada requisição,
+ * os bytes ficam no cache até o catálogo mudar (as alterações de cursos limpam o cache depois do commit).
+ */
+@Component
+class CatalogoCursosSerializado {
+
+    /**
+     * Corpo da resposta nas duas codificações, com a versão da listagem.
+     *
+     * @param json O JSON, sem compressão.
+     * @param gzip O mesmo JSON comprimido em gzip.
+     * @param versao Versão da listagem para o ETag (null se algum curso não tiver o momento da gravação).
+     * @param ultimaAlteracao Gravação mais recente entre os cursos, para o Last-Modified.
+     */
+    record Catalogo(byte[] json, byte[] gzip, String versao, Instant ultimaAlteracao) {
+    }
+
+    private final CursoService cursoService;
+    private final ObjectMapper objectMapper;
+
+    CatalogoCursosSerializado(CursoService cursoService, ObjectMapper objectMapper) {
+        this.cursoService = cursoService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Cacheable(CacheConfig.CURSOS_ATIVOS_JSON)
+    public Catalogo ativos() {
+        List<Curso> cursos = cursoService.listarAtivos();
+        Instant ultimaAlteracao = cursos.stream()
+                .map(Curso::getAtualizadoEm)
+                .filter(atualizadoEm -> atualizadoEm != null)
+                .max(Instant::compareTo)
+                .orElse(Instant.EPOCH);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(cursos);
+            return new Catalogo(json, comprimir(json),
+                    RespostaCondicional.versao(cursos, Curso::getId, Curso::getAtualizadoEm), ultimaAlteracao);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] comprimir(byte[] conteudo) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(conteudo.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(conteudo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Em memória: não acontece
+        }
+        return saida.toByteArray();
+    }
+}
@@ -1,63 +1,134 @@
 package com.neontech.sistema_escolar.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neontech.sistema_escolar.dto.CursoDTO;
+import com.neontech.sistema_escolar.dto.PaginaDTO;
 import com.neontech.sistema_escolar.model.Curso;
 import com.neontech.sistema_escolar.service.CursoService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.Duration;
 
 @RestController
 @RequestMapping("/api/cursos")
 public class CursoController {
 
     private final CursoService cursoService;
+    private final CatalogoCursosSerializado catalogoCursosSerializado;
+    private final ObjectMapper objectMapper;
+    // O catálogo é público: navegadores, CDN e proxy reverso podem guardar as leituras por este tempo
+    private final CacheControl cacheCatalogo;
 
-    public CursoController(CursoService cursoService) {
+    public CursoController(CursoService cursoService, CatalogoCursosSerializado catalogoCursosSerializado,
+                           ObjectMapper objectMapper,
+                           @Value("${sistema-escolar.http.cache-cursos}") Duration cacheCursos) {
         this.cursoService = cursoService;
+        this.catalogoCursosSerializado = catalogoCursosSerializado;
+        this.objectMapper = objectMapper;
+        this.cacheCatalogo = CacheControl.maxAge(cacheCursos).cachePublic();
     }
 
     @PostMapping
-    public ResponseEntity<Curso> criarCurso(@RequestBody Curso curso) {
-        Curso novoCurso = cursoService.salvar(curso);
-        return new ResponseEntity<>(novoCurso, HttpStatus.CREATED);
+    public ResponseEntity<CursoDTO> criarCurso(@RequestBody CursoDTO curso) {
+        Curso novoCurso = cursoService.salvar(curso.paraEntidade());
+        return new ResponseEntity<>(CursoDTO.de(novoCurso), HttpStatus.CREATED);
     }
 
     @GetMapping
-    public ResponseEntity<List<Curso>> listarTodosCursos() {
-        List<Curso> cursos = cursoService.listarTodos();
-        return new ResponseEntity<>(cursos, HttpStatus.OK);
+    public ResponseEntity<StreamingResponseBody> listarTodosCursos() {
+        // A lista é escrita na resposta conforme as linhas são lidas do banco, sem montar tudo na memória
+        StreamingResponseBody corpo = RespostaStreaming.arrayJson(objectMapper, cursoService::percorrerTodos);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(corpo);
+    }
+
+    @GetMapping("/pagina")
+    @OrcamentoSql(1)
+    public ResponseEntity<PaginaDTO<Curso>> listarPaginaCursos(@RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer tamanho) {
+        try {
+            PaginaDTO<Curso> pagina = cursoService.listarPagina(cursor, tamanho);
+            return new ResponseEntity<>(pagina, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // Cursor inválido
+        }
     }
 
     @GetMapping("/ativos")
-    public ResponseEntity<List<Curso>> listarCursosAtivos() {
-        List<Curso> cursosAtivos = cursoService.listarAtivos();
-        return new ResponseEntity<>(cursosAtivos, HttpStatus.OK);
+    @OrcamentoSql(1)
+    public ResponseEntity<byte[]> listarCursosAtivos(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Bytes já serializados (e comprimidos) no cache, escritos na resposta sem passar pelo Jackson
+        CatalogoCursosSerializado.Catalogo catalogo = catalogoCursosSerializado.ativos();
+        boolean gzip = aceitaGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(cacheCatalogo)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (catalogo.versao() != null) {
+            // Com If-None-Match ou If-Modified-Since da versão atual a resposta é 304, sem corpo.
+            // Cada codificação é uma representação diferente, com o seu próprio ETag
+            resposta.eTag(gzip ? catalogo.versao() + "-gzip" : catalogo.versao())
+                    .lastModified(catalogo.ultimaAlteracao());
+        }
+        if (gzip) {
+            return resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(catalogo.gzip());
+        }
+        return resposta.body(catalogo.json());
+    }
+
+    // Se o cliente aceita gzip, pelo nome ou por "*", sem q=0
+    static boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String opcao : acceptEncoding.split(",")) {
+            String[] partes = opcao.split(";");
+            String codificacao = partes[0].trim();
+            if (!codificacao.equalsIgnoreCase("gzip") && !codificacao.equals("*")) {
+                continue;
+            }
+            boolean recusada = false;
+            for (int i = 1; i < partes.length; i++) {
+                String parametro = partes[i].replace(" ", "");
+                if (parametro.startsWith("q=") && parametro.substring(2).matches("0(\\.0*)?")) {
+                    recusada = true;
+                }
+            }
+            return !recusada;
+        }
+        return false;
     }
 
     @GetMapping("/{id}")
+    @OrcamentoSql(1)
     public ResponseEntity<Curso> buscarCursoPorId(@PathVariable Long id) {
         return cursoService.buscarPorId(id)
-                .map(curso -> new ResponseEntity<>(curso, HttpStatus.OK))
+                .map(curso -> RespostaCondicional.ok(curso, curso.getAtualizadoEm(), cacheCatalogo))
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Curso> atualizarCurso(@PathVariable Long id, @RequestBody Curso curso) {
+    public ResponseEntity<CursoDTO> atualizarCurso(@PathVariable Long id, @RequestBody CursoDTO curso) {
         try {
-            Curso cursoAtualizado = cursoService.salvar(curso);
-            return new ResponseEntity<>(cursoAtualizado, HttpStatus.OK);
+            Curso cursoAtualizado = cursoService.salvar(curso.paraEntidade());
+            return new ResponseEntity<>(CursoDTO.de(cursoAtualizado), HttpStatus.OK);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
 
     @PatchMapping("/{id}/status")
-    public ResponseEntity<Curso> alterarStatusCurso(@PathVariable Long id, @RequestParam boolean ativo) {
+    public ResponseEntity<CursoDTO> alterarStatusCurso(@PathVariable Long id, @RequestParam boolean ativo) {
         try {
             Curso cursoAtualizado = cursoService.alterarStatus(id, ativo);
-            return new ResponseEntity<>(cursoAtualizado, HttpStatus.OK);
+            return new ResponseEntity<>(CursoDTO.de(cursoAtualizado), HttpStatus.OK);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -0,0 +1,30 @@
+package com.neontech.sistema_escolar.controller;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Respostas para falhas de infraestrutura que não são erro do cliente.
+ */
+@RestControllerAdvice
+public class ErrosInfraestruturaHandler {
+
+    /**
+     * Pool de conexões esgotado: nenhuma conexão ficou livre dentro do timeout do Hikari.
+     * Responde 503 para o cliente tentar de novo, em vez de segurar a requisição até o banco aliviar.
+     * Como a conexão só é obtida no primeiro comando SQL (ver {@code RoteamentoDataSourceConfig}), o timeout
+     * costuma chegar traduzido pelo JPA como {@link DataAccessResourceFailureException}, e não na abertura
+     * da transação; {@code CannotGetJdbcConnectionException} (JdbcTemplate) é uma subclasse dela.
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<String> poolDeConexoesEsgotado() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Serviço sobrecarregado. Tente novamente em instantes.");
+    }
+}
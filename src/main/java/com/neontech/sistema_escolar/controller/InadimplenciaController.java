@@ -0,0 +1,49 @@
+package com.neontech.sistema_escolar.controller;
+
+import com.neontech.sistema_escolar.dto.ExecucaoInadimplenciaDTO;
+import com.neontech.sistema_escolar.service.InadimplenciaService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller da rotina de inadimplência (matrículas PENDENTE vencidas passam a ATRASADO).
+ * A rotina roda sozinha no horário configurado; estes endpoints permitem disparar e acompanhar as execuções.
+ */
+@RestController
+@RequestMapping("/api/inadimplencia")
+public class InadimplenciaController {
+
+    private final InadimplenciaService inadimplenciaService;
+
+    public InadimplenciaController(InadimplenciaService inadimplenciaService) {
+        this.inadimplenciaService = inadimplenciaService;
+    }
+
+    /**
+     * Endpoint para disparar a rotina manualmente.
+     *
+     * @return ResponseEntity com o registro da execução, ou status 409 (Conflict) se a rotina já estiver em andamento
+     */
+    @PostMapping("/execucoes")
+    public ResponseEntity<ExecucaoInadimplenciaDTO> executar() {
+        return inadimplenciaService.marcarAtrasadas("manual")
+                .map(execucao -> new ResponseEntity<>(execucao, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.CONFLICT));
+    }
+
+    /**
+     * Endpoint para listar as execuções mais recentes da rotina (histórico em memória).
+     *
+     * @return ResponseEntity com as execuções, da mais nova para a mais antiga
+     */
+    @GetMapping("/execucoes")
+    public ResponseEntity<List<ExecucaoInadimplenciaDTO>> listarExecucoes() {
+        return new ResponseEntity<>(inadimplenciaService.listarExecucoes(), HttpStatus.OK);
+    }
+}
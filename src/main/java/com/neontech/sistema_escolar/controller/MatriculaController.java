@@ -1,18 +1,31 @@
 package com.neontech.sistema_escolar.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neontech.sistema_escolar.dto.AtualizacaoStatusPagamentoDTO;
 import com.neontech.sistema_escolar.dto.MatriculaDTO;
+import com.neontech.sistema_escolar.dto.NovaMatriculaDTO;
+import com.neontech.sistema_escolar.dto.PaginaDTO;
+import com.neontech.sistema_escolar.dto.ResultadoLoteDTO;
 import com.neontech.sistema_escolar.model.Matricula;
 import com.neontech.sistema_escolar.model.StatusPagamento;
 import com.neontech.sistema_escolar.service.MatriculaService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Controller para operações relacionadas a matrículas.
@@ -22,49 +35,83 @@ import java.util.Optional;
 @RequestMapping("/api/matriculas")
 public class MatriculaController {
 
+    // Colunas da exportação em CSV, na ordem em que são escritas
+    private static final List<String> COLUNAS_CSV = List.of(
+            "id", "alunoId", "alunoNome", "alunoCpf", "cursoId", "cursoNome",
+            "dataMatricula", "valorCobrado", "statusPagamento", "dataVencimento");
+
     private final MatriculaService matriculaService;
+    private final ObjectMapper objectMapper;
 
     // Injeção de dependência via construtor
-    public MatriculaController(MatriculaService matriculaService) {
+    public MatriculaController(MatriculaService matriculaService, ObjectMapper objectMapper) {
         this.matriculaService = matriculaService;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Endpoint para realizar uma nova matrícula.
      *
-     * @param dadosMatricula Mapa contendo os dados necessários para a matrícula
-     * @return ResponseEntity com a matrícula criada ou mensagem de erro
+     * @param dados Aluno, curso, valor cobrado e data de vencimento da matrícula
+     * @return ResponseEntity com a matrícula criada e o ETag da versão, status 400 (Bad Request) com a mensagem
+     *         de erro (inclusive se faltar aluno, curso ou valor) ou 409 (Conflict) se o aluno já estiver matriculado no curso
      */
     @PostMapping
-    public ResponseEntity<?> realizarMatricula(@RequestBody Map<String, Object> dadosMatricula) {
+    public ResponseEntity<?> realizarMatricula(@RequestBody NovaMatriculaDTO dados) {
+        if (dados.getAlunoId() == null || dados.getCursoId() == null || dados.getValorCobrado() == null) {
+            return new ResponseEntity<>("alunoId, cursoId e valorCobrado são obrigatórios.", HttpStatus.BAD_REQUEST);
+        }
         try {
-            // Extrair dados do request body
-            Long alunoId = Long.valueOf(dadosMatricula.get("alunoId").toString());
-            Long cursoId = Long.valueOf(dadosMatricula.get("cursoId").toString());
-            BigDecimal valorCobrado = new BigDecimal(dadosMatricula.get("valorCobrado").toString());
-            LocalDate dataVencimento = LocalDate.parse(dadosMatricula.get("dataVencimento").toString());
-
             // Chamar o serviço para realizar a matrícula
-            Matricula novaMatricula = matriculaService.realizarMatricula(alunoId, cursoId, valorCobrado, dataVencimento);
+            Matricula novaMatricula = matriculaService.realizarMatricula(
+                    dados.getAlunoId(), dados.getCursoId(), dados.getValorCobrado(), dados.getDataVencimento());
 
-            // Retornar a matrícula criada com status 201 (Created)
-            return new ResponseEntity<>(novaMatricula, HttpStatus.CREATED);
+            // Retornar a matrícula criada com status 201 (Created), montada a partir do que já está em memória
+            MatriculaDTO criada = MatriculaDTO.de(novaMatricula);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(String.valueOf(criada.getVersao())).body(criada);
+        } catch (DuplicateKeyException e) {
+            // Aluno já matriculado no curso (inclusive por uma requisição simultânea)
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
         } catch (RuntimeException e) {
             // Em caso de erro, retornar uma mensagem amigável com status 400 (Bad Request)
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
     }
 
+    /**
+     * Endpoint para realizar várias matrículas de uma vez (importação em lote).
+     * Cada linha é validada individualmente; as inválidas são rejeitadas sem impedir as demais.
+     *
+     * @param matriculas Lista com os dados de cada matrícula
+     * @return ResponseEntity com o resultado de cada linha, na mesma ordem da requisição,
+     *         ou status 409 (Conflict) se uma matrícula concorrente colidir com o lote
+     */
+    @PostMapping("/lote")
+    public ResponseEntity<?> realizarMatriculasEmLote(@RequestBody List<NovaMatriculaDTO> matriculas) {
+        if (matriculas == null || matriculas.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            List<ResultadoLoteDTO> resultados = matriculaService.realizarMatriculasEmLote(matriculas);
+            return new ResponseEntity<>(resultados, HttpStatus.OK);
+        } catch (DataIntegrityViolationException e) {
+            // Outra requisição matriculou um dos pares durante a importação; nada foi gravado
+            return new ResponseEntity<>("Conflito com uma matrícula concorrente. Reenvie a importação.", HttpStatus.CONFLICT);
+        }
+    }
+
     /**
      * Endpoint para buscar uma matrícula pelo ID.
+     * A versão da matrícula vai no cabeçalho ETag, para ser devolvida em If-Match na atualização de status.
      *
      * @param id ID da matrícula a ser buscada
      * @return ResponseEntity com a matrícula encontrada ou status 404 (Not Found)
      */
     @GetMapping("/{id}")
+    @OrcamentoSql(1)
     public ResponseEntity<MatriculaDTO> buscarMatriculaPorId(@PathVariable Long id) {
         Optional<MatriculaDTO> matricula = matriculaService.buscarPorId(id);
-        return matricula.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+        return matricula.map(value -> ResponseEntity.ok().eTag(String.valueOf(value.getVersao())).body(value))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
@@ -75,31 +122,118 @@ public class MatriculaController {
      * @return ResponseEntity com a lista de matrículas do aluno
      */
     @GetMapping("/aluno/{alunoId}")
+    @OrcamentoSql(1)
     public ResponseEntity<List<MatriculaDTO>> listarMatriculasPorAluno(@PathVariable Long alunoId) {
         List<MatriculaDTO> matriculas = matriculaService.listarMatriculasPorAluno(alunoId);
         return new ResponseEntity<>(matriculas, HttpStatus.OK);
     }
 
+    /**
+     * Endpoint para listar as matrículas em páginas, usando paginação por cursor (keyset).
+     *
+     * @param cursor Cursor devolvido pela página anterior (omitir para a primeira página)
+     * @param tamanho Quantidade de matrículas por página (opcional, limitada ao máximo configurado)
+     * @return ResponseEntity com a página e o cursor da próxima, ou status 400 (Bad Request) se o cursor for inválido
+     */
+    @GetMapping("/pagina")
+    @OrcamentoSql(1)
+    public ResponseEntity<PaginaDTO<MatriculaDTO>> listarPaginaMatriculas(@RequestParam(required = false) String cursor,
+                                                                          @RequestParam(required = false) Integer tamanho) {
+        try {
+            PaginaDTO<MatriculaDTO> pagina = matriculaService.listarPagina(cursor, tamanho);
+            return new ResponseEntity<>(pagina, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Endpoint para exportar matrículas em NDJSON (um objeto JSON por linha) ou CSV.
+     * O resultado é escrito na resposta à medida que as linhas são lidas do banco,
+     * então a memória usada é constante mesmo com milhões de matrículas.
+     *
+     * @param formato "ndjson" (padrão) ou "csv"
+     * @param status Filtra pelo status de pagamento (opcional)
+     * @param vencimentoDe Data de vencimento mínima, inclusiva, no formato ISO (opcional)
+     * @param vencimentoAte Data de vencimento máxima, inclusiva, no formato ISO (opcional)
+     * @return ResponseEntity com o corpo em streaming, ou status 400 (Bad Request) se o formato for desconhecido
+     */
+    @GetMapping("/exportacao")
+    public ResponseEntity<StreamingResponseBody> exportarMatriculas(
+            @RequestParam(defaultValue = "ndjson") String formato,
+            @RequestParam(required = false) StatusPagamento status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate vencimentoDe,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate vencimentoAte) {
+        Consumer<Consumer<MatriculaDTO>> produtor =
+                consumidor -> matriculaService.exportar(status, vencimentoDe, vencimentoAte, consumidor);
+        switch (formato.toLowerCase(Locale.ROOT)) {
+            case "ndjson": {
+                StreamingResponseBody corpo = RespostaStreaming.ndjson(objectMapper, produtor);
+                return ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                        .body(corpo);
+            }
+            case "csv": {
+                StreamingResponseBody corpo = RespostaStreaming.csv(COLUNAS_CSV, this::colunasCsv, produtor);
+                return ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"matriculas.csv\"")
+                        .body(corpo);
+            }
+            default:
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
     /**
      * Endpoint para atualizar o status de pagamento de uma matrícula.
+     * Com o cabeçalho If-Match (o ETag lido em {@code GET /api/matriculas/{id}}) a atualização só acontece
+     * se a matrícula não mudou desde a leitura; sem ele vale o status atual, desde que a transição seja permitida.
      *
      * @param id ID da matrícula
-     * @param dadosAtualizacao Mapa contendo o novo status de pagamento
-     * @return ResponseEntity com a matrícula atualizada ou mensagem de erro
+     * @param dadosAtualizacao O novo status de pagamento
+     * @param ifMatch Versão esperada da matrícula (opcional)
+     * @return ResponseEntity com a matrícula atualizada e o novo ETag; 400 (Bad Request) se o status for inválido,
+     *         404 (Not Found) se a matrícula não existir, 409 (Conflict) se a transição não for permitida
+     *         ou 412 (Precondition Failed) se a matrícula não estiver na versão do If-Match
      */
     @PatchMapping("/{id}/status-pagamento")
-    public ResponseEntity<Matricula> atualizarStatusPagamento(@PathVariable Long id, @RequestBody Map<String, String> dadosAtualizacao) {
+    public ResponseEntity<?> atualizarStatusPagamento(@PathVariable Long id,
+                                                      @RequestBody AtualizacaoStatusPagamentoDTO dadosAtualizacao,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (dadosAtualizacao.getStatus() == null) {
+            return new ResponseEntity<>("status é obrigatório.", HttpStatus.BAD_REQUEST);
+        }
+        Long versaoEsperada;
         try {
-            StatusPagamento novoStatus = StatusPagamento.valueOf(dadosAtualizacao.get("status").toUpperCase());
-            Matricula matriculaAtualizada = matriculaService.atualizarStatusPagamento(id, novoStatus);
-            return new ResponseEntity<>(matriculaAtualizada, HttpStatus.OK);
+            versaoEsperada = versaoDoIfMatch(ifMatch);
+        } catch (NumberFormatException e) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED); // Não corresponde a nenhuma versão
+        }
+        try {
+            StatusPagamento novoStatus = StatusPagamento.valueOf(dadosAtualizacao.getStatus().toUpperCase(Locale.ROOT));
+            MatriculaDTO matriculaAtualizada = matriculaService.atualizarStatusPagamento(id, novoStatus, versaoEsperada);
+            return ResponseEntity.ok().eTag(String.valueOf(matriculaAtualizada.getVersao())).body(matriculaAtualizada);
+        } catch (OptimisticLockingFailureException e) {
+            HttpStatus status = versaoEsperada != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+            return new ResponseEntity<>(e.getMessage(), status);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT); // Transição não permitida
         } catch (IllegalArgumentException e) {
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // Status inexistente
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
 
+    // Versão pedida no If-Match ("3", com ou sem aspas); "*" ou ausente aceita qualquer versão
+    static Long versaoDoIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        return Long.valueOf(ifMatch.trim().replace("\"", ""));
+    }
+
     /**
      * Endpoint para cancelar uma matrícula.
      *
@@ -115,6 +249,18 @@ public class MatriculaController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
-}
-
 
+    private List<?> colunasCsv(MatriculaDTO matricula) {
+        return Arrays.asList(
+                matricula.getId(),
+                matricula.getAluno().getId(),
+                matricula.getAluno().getNome(),
+                matricula.getAluno().getCpf(),
+                matricula.getCurso().getId(),
+                matricula.getCurso().getNome(),
+                matricula.getDataMatricula(),
+                matricula.getValorCobrado(),
+                matricula.getStatusPagamento(),
+                matricula.getDataVencimento());
+    }
+}
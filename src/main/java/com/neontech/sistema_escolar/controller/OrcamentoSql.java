@@ -0,0 +1,21 @@
+package com.neontech.sistema_escolar.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Número máximo de comandos SQL que uma requisição ao endpoint pode executar.
+ * Acima dele a requisição é registrada no log; nos testes ({@code sistema-escolar.sql.falhar-acima-do-orcamento})
+ * ela falha, para que um N+1 introduzido por uma alteração apareça antes de chegar à produção.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OrcamentoSql {
+
+    /** Comandos SQL permitidos por requisição. */
+    int value();
+}
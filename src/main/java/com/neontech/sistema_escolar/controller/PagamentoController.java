@@ -0,0 +1,60 @@
+package com.neontech.sistema_escolar.controller;
+
+import com.neontech.sistema_escolar.dto.ConfirmacaoPagamentoDTO;
+import com.neontech.sistema_escolar.dto.RecebimentoConfirmacoesDTO;
+import com.neontech.sistema_escolar.service.ConfirmacaoPagamentoService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Controller das confirmações de pagamento enviadas pelo gateway.
+ */
+@RestController
+@RequestMapping("/api/pagamentos")
+public class PagamentoController {
+
+    // Segundos que o gateway deve esperar antes de reenviar quando a fila estiver cheia
+    private static final String ESPERA_REENVIO = "1";
+
+    private final ConfirmacaoPagamentoService confirmacaoPagamentoService;
+
+    public PagamentoController(ConfirmacaoPagamentoService confirmacaoPagamentoService) {
+        this.confirmacaoPagamentoService = confirmacaoPagamentoService;
+    }
+
+    /**
+     * Endpoint para receber um lote de confirmações de pagamento.
+     * Responde assim que as confirmações entram na fila; as matrículas são marcadas como PAGO em segundo plano.
+     *
+     * @param confirmacoes Lista de confirmações, cada uma com chave de idempotência e ID da matrícula
+     * @return ResponseEntity com quantas foram aceitas e quantas eram duplicadas e status 202 (Accepted),
+     *         status 400 (Bad Request) se a lista for vazia ou tiver confirmação incompleta,
+     *         ou status 429 (Too Many Requests) com Retry-After se a fila estiver cheia
+     */
+    @PostMapping("/confirmacoes")
+    public ResponseEntity<RecebimentoConfirmacoesDTO> receberConfirmacoes(
+            @RequestBody List<ConfirmacaoPagamentoDTO> confirmacoes) {
+        if (confirmacoes == null || confirmacoes.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            Optional<RecebimentoConfirmacoesDTO> recebimento = confirmacaoPagamentoService.receber(confirmacoes);
+            if (recebimento.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, ESPERA_REENVIO)
+                        .build();
+            }
+            return new ResponseEntity<>(recebimento.get(), HttpStatus.ACCEPTED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+}
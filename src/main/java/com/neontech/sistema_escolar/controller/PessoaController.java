@@ -1,54 +1,129 @@
 package com.neontech.sistema_escolar.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neontech.sistema_escolar.dto.PaginaDTO;
+import com.neontech.sistema_escolar.dto.PessoaDTO;
+import com.neontech.sistema_escolar.dto.ResultadoLoteDTO;
 import com.neontech.sistema_escolar.model.Pessoa;
 import com.neontech.sistema_escolar.service.PessoaService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/pessoas")
 public class PessoaController {
 
+    // Dados pessoais: só o navegador guarda a resposta, e sempre a revalida (If-None-Match) antes de usar
+    private static final CacheControl CACHE_PESSOA = CacheControl.noCache().cachePrivate();
+
     private final PessoaService pessoaService;
+    private final ObjectMapper objectMapper;
 
-    public PessoaController(PessoaService pessoaService) {
+    public PessoaController(PessoaService pessoaService, ObjectMapper objectMapper) {
         this.pessoaService = pessoaService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
-    public ResponseEntity<Pessoa> criarPessoa(@RequestBody Pessoa pessoa) {
-        Pessoa novaPessoa = pessoaService.salvar(pessoa);
-        return new ResponseEntity<>(novaPessoa, HttpStatus.CREATED);
+    public ResponseEntity<PessoaDTO> criarPessoa(@RequestBody PessoaDTO pessoa) {
+        Pessoa novaPessoa = pessoaService.salvar(pessoa.paraEntidade());
+        return new ResponseEntity<>(PessoaDTO.de(novaPessoa), HttpStatus.CREATED);
+    }
+
+    @PostMapping("/lote")
+    public ResponseEntity<?> importarPessoas(@RequestBody List<Pessoa> pessoas) {
+        if (pessoas == null || pessoas.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            List<ResultadoLoteDTO> resultados = pessoaService.importar(pessoas);
+            return new ResponseEntity<>(resultados, HttpStatus.OK);
+        } catch (DataIntegrityViolationException e) {
+            // Outro cadastro gravou um dos CPFs durante a importação; nada foi gravado
+            return new ResponseEntity<>("Conflito de CPF com um cadastro concorrente. Reenvie a importação.", HttpStatus.CONFLICT);
+        }
+    }
+
+    @PostMapping(value = "/lote/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importarPessoasCsv(@RequestParam("arquivo") MultipartFile arquivo) {
+        try (Reader csv = new InputStreamReader(arquivo.getInputStream(), StandardCharsets.UTF_8)) {
+            List<ResultadoLoteDTO> resultados = pessoaService.importarCsv(csv);
+            return new ResponseEntity<>(resultados, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST); // Arquivo malformado
+        } catch (DataIntegrityViolationException e) {
+            return new ResponseEntity<>("Conflito de CPF com um cadastro concorrente. Reenvie a importação.", HttpStatus.CONFLICT);
+        } catch (IOException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
     }
 
     @GetMapping
-    public ResponseEntity<List<Pessoa>> listarTodasPessoas() {
-        List<Pessoa> pessoas = pessoaService.listarTodos();
-        return new ResponseEntity<>(pessoas, HttpStatus.OK);
+    public ResponseEntity<StreamingResponseBody> listarTodasPessoas() {
+        // A lista é escrita na resposta conforme as linhas são lidas do banco, sem montar tudo na memória
+        StreamingResponseBody corpo = RespostaStreaming.arrayJson(objectMapper, pessoaService::percorrerTodos);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(corpo);
+    }
+
+    @GetMapping("/pagina")
+    @OrcamentoSql(1)
+    public ResponseEntity<PaginaDTO<Pessoa>> listarPaginaPessoas(@RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer tamanho) {
+        try {
+            PaginaDTO<Pessoa> pagina = pessoaService.listarPagina(cursor, tamanho);
+            return new ResponseEntity<>(pagina, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // Cursor inválido
+        }
+    }
+
+    @GetMapping("/busca")
+    @OrcamentoSql(1)
+    public ResponseEntity<?> buscarPessoas(@RequestParam String termo,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer tamanho) {
+        try {
+            PaginaDTO<Pessoa> pagina = pessoaService.buscar(termo, cursor, tamanho);
+            return new ResponseEntity<>(pagina, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST); // Termo curto ou cursor inválido
+        }
     }
 
     @GetMapping("/{id}")
+    @OrcamentoSql(1)
     public ResponseEntity<Pessoa> buscarPessoaPorId(@PathVariable Long id) {
+        // Com If-None-Match ou If-Modified-Since da versão atual a resposta é 304, sem corpo
         return pessoaService.buscarPorId(id)
-                .map(pessoa -> new ResponseEntity<>(pessoa, HttpStatus.OK))
+                .map(pessoa -> RespostaCondicional.ok(pessoa, pessoa.getAtualizadoEm(), CACHE_PESSOA))
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     @GetMapping("/cpf/{cpf}")
+    @OrcamentoSql(1)
     public ResponseEntity<Pessoa> buscarPessoaPorCpf(@PathVariable String cpf) {
         return pessoaService.buscarPorCpf(cpf)
-                .map(pessoa -> new ResponseEntity<>(pessoa, HttpStatus.OK))
+                .map(pessoa -> RespostaCondicional.ok(pessoa, pessoa.getAtualizadoEm(), CACHE_PESSOA))
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Pessoa> atualizarPessoa(@PathVariable Long id, @RequestBody Pessoa pessoa) {
+    public ResponseEntity<PessoaDTO> atualizarPessoa(@PathVariable Long id, @RequestBody PessoaDTO pessoa) {
         try {
-            Pessoa pessoaAtualizada = pessoaService.salvar(pessoa);
-            return new ResponseEntity<>(pessoaAtualizada, HttpStatus.OK);
+            Pessoa pessoaAtualizada = pessoaService.salvar(pessoa.paraEntidade());
+            return new ResponseEntity<>(PessoaDTO.de(pessoaAtualizada), HttpStatus.OK);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
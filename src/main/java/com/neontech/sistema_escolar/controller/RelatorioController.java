@@ -0,0 +1,100 @@
+package com.neontech.sistema_escolar.controller;
+
+import com.neontech.sistema_escolar.dto.ReconciliacaoResumoDTO;
+import com.neontech.sistema_escolar.dto.ResumoFinanceiroCursoDTO;
+import com.neontech.sistema_escolar.dto.ResumoFinanceiroMensalDTO;
+import com.neontech.sistema_escolar.service.DataReferencia;
+import com.neontech.sistema_escolar.service.RelatorioService;
+import com.neontech.sistema_escolar.service.ResumoFinanceiroService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Controller dos relatórios financeiros do painel.
+ * Cada chamada executa uma única consulta agregada no banco.
+ */
+@RestController
+@RequestMapping("/api/relatorios")
+public class RelatorioController {
+
+    private final RelatorioService relatorioService;
+    private final ResumoFinanceiroService resumoFinanceiroService;
+
+    public RelatorioController(RelatorioService relatorioService, ResumoFinanceiroService resumoFinanceiroService) {
+        this.relatorioService = relatorioService;
+        this.resumoFinanceiroService = resumoFinanceiroService;
+    }
+
+    /**
+     * Endpoint com a quantidade de matrículas e o valor total por curso e status de pagamento.
+     *
+     * @param referencia VENCIMENTO (padrão) ou MATRICULA: qual data é comparada com o intervalo
+     * @param de Início do intervalo no formato ISO (padrão: primeiro dia do mês atual)
+     * @param ate Fim do intervalo no formato ISO (padrão: último dia do mês atual)
+     * @return ResponseEntity com os totais, ou status 400 (Bad Request) se o intervalo for inválido
+     */
+    @GetMapping("/financeiro/cursos")
+    @OrcamentoSql(1)
+    public ResponseEntity<List<ResumoFinanceiroCursoDTO>> resumirPorCurso(
+            @RequestParam(defaultValue = "VENCIMENTO") DataReferencia referencia,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        try {
+            return new ResponseEntity<>(relatorioService.resumirPorCurso(referencia, de, ate), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Endpoint com a quantidade de matrículas e o valor total por curso e status, considerando todas as matrículas.
+     * Lê os totais mantidos a cada matrícula, sem percorrer a tabela de matrículas (próprio para o polling do painel).
+     *
+     * @return ResponseEntity com os totais acumulados
+     */
+    @GetMapping("/financeiro/cursos/acumulado")
+    @OrcamentoSql(1)
+    public ResponseEntity<List<ResumoFinanceiroCursoDTO>> resumirAcumuladoPorCurso() {
+        return new ResponseEntity<>(relatorioService.resumirAcumuladoPorCurso(), HttpStatus.OK);
+    }
+
+    /**
+     * Endpoint para recalcular os totais acumulados a partir das matrículas (a mesma rotina roda diariamente).
+     *
+     * @return ResponseEntity com as divergências encontradas e corrigidas
+     */
+    @PostMapping("/financeiro/reconciliacao")
+    public ResponseEntity<ReconciliacaoResumoDTO> reconciliar() {
+        return new ResponseEntity<>(resumoFinanceiroService.reconciliar(), HttpStatus.OK);
+    }
+
+    /**
+     * Endpoint com a quantidade de matrículas e o valor total por mês e status de pagamento.
+     *
+     * @param referencia VENCIMENTO (padrão) ou MATRICULA: qual data define o mês
+     * @param de Início do intervalo no formato ISO (padrão: primeiro dia de 11 meses atrás)
+     * @param ate Fim do intervalo no formato ISO (padrão: último dia do mês atual)
+     * @return ResponseEntity com os totais, ou status 400 (Bad Request) se o intervalo for inválido
+     */
+    @GetMapping("/financeiro/mensal")
+    @OrcamentoSql(1)
+    public ResponseEntity<List<ResumoFinanceiroMensalDTO>> resumirPorMes(
+            @RequestParam(defaultValue = "VENCIMENTO") DataReferencia referencia,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        try {
+            return new ResponseEntity<>(relatorioService.resumirPorMes(referencia, de, ate), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+}
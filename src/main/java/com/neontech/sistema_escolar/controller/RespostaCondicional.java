@@ -0,0 +1,64 @@
+package com.neontech.sistema_escolar.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utilitário para respostas de leitura condicional. A versão de cada registro é o momento da sua última gravação
+ * ({@code atualizadoEm}), já presente na entidade lida do cache: o ETag é calculado sem serializar a resposta.
+ * Para a listagem de cursos ativos veja {@link CatalogoCursosSerializado}.
+ * <p>
+ * Com o ETag e o Last-Modified na resposta, o próprio Spring MVC compara com o If-None-Match / If-Modified-Since
+ * da requisição e responde 304 (Not Modified) sem corpo quando o cliente já tem a versão atual.
+ */
+final class RespostaCondicional {
+
+    private RespostaCondicional() {
+    }
+
+    /**
+     * Resposta 200 com a versão de um único registro.
+     *
+     * @param corpo O registro.
+     * @param atualizadoEm Momento da última gravação do registro.
+     * @param cacheControl Por quanto tempo e onde a resposta pode ser guardada.
+     */
+    static <T> ResponseEntity<T> ok(T corpo, Instant atualizadoEm, CacheControl cacheControl) {
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok().cacheControl(cacheControl);
+        if (atualizadoEm != null) {
+            resposta.eTag(Long.toHexString(microssegundos(atualizadoEm))).lastModified(atualizadoEm);
+        }
+        return resposta.body(corpo);
+    }
+
+    /**
+     * Versão de uma lista, para o ETag: muda se algum registro entrar, sair ou for alterado.
+     *
+     * @param itens Os registros, sempre na mesma ordem.
+     * @param id Função que devolve o ID de cada registro.
+     * @param atualizadoEm Função que devolve o momento da última gravação de cada registro.
+     * @return A versão, ou null se algum registro não tiver o momento da gravação.
+     */
+    static <T> String versao(List<T> itens, Function<T, Long> id, Function<T, Instant> atualizadoEm) {
+        long resumo = 1;
+        for (T item : itens) {
+            Instant gravacao = atualizadoEm.apply(item);
+            if (gravacao == null) {
+                return null;
+            }
+            resumo = 31 * resumo + id.apply(item);
+            resumo = 31 * resumo + microssegundos(gravacao);
+        }
+        return itens.size() + "-" + Long.toHexString(resumo);
+    }
+
+    // O banco guarda microssegundos: a versão lida de volta é a mesma da entidade recém-gravada
+    private static long microssegundos(Instant instante) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instante);
+    }
+}
@@ -0,0 +1,134 @@
+package com.neontech.sistema_escolar.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Utilitário para respostas escritas na saída HTTP à medida que os registros são lidos do banco,
+ * sem montar a lista completa na memória.
+ */
+final class RespostaStreaming {
+
+    // A cada quantas linhas a saída é descarregada para o cliente (envio em blocos)
+    private static final int LINHAS_POR_DESCARGA = 1000;
+
+    private RespostaStreaming() {
+    }
+
+    /**
+     * Cria um corpo de resposta com um array JSON cujos elementos são entregues pelo produtor.
+     *
+     * @param objectMapper O ObjectMapper da aplicação (mesma configuração das demais respostas).
+     * @param produtor Função que percorre os registros e entrega cada um ao consumidor recebido.
+     * @return O corpo de resposta que será escrito de forma assíncrona pelo Spring MVC.
+     */
+    static <T> StreamingResponseBody arrayJson(ObjectMapper objectMapper, Consumer<Consumer<T>> produtor) {
+        return saida -> {
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+                // Quem fecha a saída é o container, não o gerador
+                gerador.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+                gerador.writeStartArray();
+                produtor.accept(item -> escrever(gerador, item));
+                gerador.writeEndArray();
+            }
+        };
+    }
+
+    /**
+     * Cria um corpo de resposta em NDJSON (um objeto JSON por linha), descarregando a saída
+     * a cada {@value #LINHAS_POR_DESCARGA} linhas.
+     *
+     * @param objectMapper O ObjectMapper da aplicação.
+     * @param produtor Função que percorre os registros e entrega cada um ao consumidor recebido.
+     * @return O corpo de resposta que será escrito de forma assíncrona pelo Spring MVC.
+     */
+    static <T> StreamingResponseBody ndjson(ObjectMapper objectMapper, Consumer<Consumer<T>> produtor) {
+        return saida -> {
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+                gerador.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+                gerador.setRootValueSeparator(null); // O separador entre objetos é a quebra de linha abaixo
+                int[] linhas = {0};
+                produtor.accept(item -> {
+                    escrever(gerador, item);
+                    try {
+                        gerador.writeRaw('\n');
+                        if (++linhas[0] % LINHAS_POR_DESCARGA == 0) {
+                            gerador.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Cria um corpo de resposta em CSV (separado por vírgulas, UTF-8), descarregando a saída
+     * a cada {@value #LINHAS_POR_DESCARGA} linhas.
+     *
+     * @param cabecalho Os nomes das colunas, escritos na primeira linha.
+     * @param colunas Função que extrai os valores das colunas de cada registro, na ordem do cabeçalho.
+     * @param produtor Função que percorre os registros e entrega cada um ao consumidor recebido.
+     * @return O corpo de resposta que será escrito de forma assíncrona pelo Spring MVC.
+     */
+    static <T> StreamingResponseBody csv(List<String> cabecalho, Function<T, List<?>> colunas,
+                                         Consumer<Consumer<T>> produtor) {
+        return saida -> {
+            Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+            escreverLinhaCsv(escritor, cabecalho);
+            int[] linhas = {0};
+            produtor.accept(item -> {
+                try {
+                    escreverLinhaCsv(escritor, colunas.apply(item));
+                    if (++linhas[0] % LINHAS_POR_DESCARGA == 0) {
+                        escritor.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            escritor.flush();
+        };
+    }
+
+    private static void escreverLinhaCsv(Writer escritor, List<?> valores) throws IOException {
+        for (int i = 0; i < valores.size(); i++) {
+            if (i > 0) {
+                escritor.write(',');
+            }
+            Object valor = valores.get(i);
+            if (valor != null) {
+                escritor.write(escaparCsv(valor.toString()));
+            }
+        }
+        escritor.write('\n');
+    }
+
+    // Valores com separador, aspas ou quebra de linha vão entre aspas, com as aspas internas duplicadas
+    private static String escaparCsv(String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    private static void escrever(JsonGenerator gerador, Object item) {
+        try {
+            gerador.writeObject(item);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.neontech.sistema_escolar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Dados de entrada para atualizar o status de pagamento de uma matrícula.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AtualizacaoStatusPagamentoDTO {
+    private String status; // Nome do StatusPagamento, sem diferenciar maiúsculas
+}
@@ -0,0 +1,18 @@
+package com.neontech.sistema_escolar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Confirmação de pagamento enviada pelo gateway.
+ * A {@code chave} identifica a confirmação (por exemplo, o ID da transação no banco): reenvios com a mesma chave
+ * são reconhecidos como duplicados e descartados.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfirmacaoPagamentoDTO {
+    private String chave;
+    private Long matriculaId;
+}
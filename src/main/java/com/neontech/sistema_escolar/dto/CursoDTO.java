@@ -1,5 +1,6 @@
 package com.neontech.sistema_escolar.dto;
 
+import com.neontech.sistema_escolar.model.Curso;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -15,5 +16,16 @@ public class CursoDTO {
     private String descricao;
     private BigDecimal valor;
     private Integer cargaHoraria;
-    private boolean ativo;
+    private boolean ativo = true; // Mesmo padrão da entidade quando o campo não vem na requisição
+
+    /** Copia os campos de um curso já carregado, sem acessar o banco. */
+    public static CursoDTO de(Curso curso) {
+        return new CursoDTO(curso.getId(), curso.getNome(), curso.getDescricao(), curso.getValor(),
+                curso.getCargaHoraria(), curso.isAtivo());
+    }
+
+    /** Entidade com os dados recebidos na requisição, para ser gravada pelo serviço. */
+    public Curso paraEntidade() {
+        return new Curso(id, nome, descricao, valor, cargaHoraria, ativo, null);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.neontech.sistema_escolar.dto;
+
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Diferença encontrada pela reconciliação entre o total acumulado e o total real das matrículas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DivergenciaResumoDTO {
+    private Long cursoId;
+    private StatusPagamento statusPagamento;
+    private long quantidadeRegistrada;
+    private long quantidadeReal;
+    private BigDecimal valorRegistrado;
+    private BigDecimal valorReal;
+}
@@ -0,0 +1,23 @@
+package com.neontech.sistema_escolar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de uma execução da rotina que marca matrículas vencidas como ATRASADO.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecucaoInadimplenciaDTO {
+    private String origem;               // "agendada" ou "manual"
+    private LocalDateTime inicio;
+    private long duracaoMs;
+    private int blocos;                  // Quantidade de UPDATEs (transações) executados
+    private long matriculasAtualizadas;
+    private boolean sucesso;
+    private String erro;                 // Mensagem da falha, quando não houve sucesso
+}
@@ -1,5 +1,6 @@
 package com.neontech.sistema_escolar.dto;
 
+import com.neontech.sistema_escolar.model.Matricula;
 import com.neontech.sistema_escolar.model.StatusPagamento;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -19,4 +20,34 @@ public class MatriculaDTO {
     private BigDecimal valorCobrado;
     private StatusPagamento statusPagamento;
     private LocalDate dataVencimento;
+    private Long versao; // Versão da matrícula, devolvida como ETag
+
+    /**
+     * Construtor "achatado" usado pelas consultas JPQL com expressão construtora
+     * ({@code select new ...MatriculaDTO(...)}). O JPQL não permite {@code new} aninhado,
+     * então os campos do aluno e do curso chegam soltos e os DTOs aninhados são montados aqui.
+     * Assim a matrícula completa é lida em um único SELECT, sem entidades gerenciadas.
+     */
+    public MatriculaDTO(Long id,
+                        Long alunoId, String alunoNome, String alunoCpf, LocalDate alunoDataNascimento,
+                        String alunoEmail, String alunoTelefone,
+                        Long cursoId, String cursoNome, String cursoDescricao, BigDecimal cursoValor,
+                        Integer cursoCargaHoraria, boolean cursoAtivo,
+                        LocalDate dataMatricula, BigDecimal valorCobrado,
+                        StatusPagamento statusPagamento, LocalDate dataVencimento, Long versao) {
+        this(id,
+                new PessoaDTO(alunoId, alunoNome, alunoCpf, alunoDataNascimento, alunoEmail, alunoTelefone),
+                new CursoDTO(cursoId, cursoNome, cursoDescricao, cursoValor, cursoCargaHoraria, cursoAtivo),
+                dataMatricula, valorCobrado, statusPagamento, dataVencimento, versao);
+    }
+
+    /**
+     * Monta o DTO a partir de uma matrícula recém-gravada, cujos aluno e curso já estão carregados.
+     * Só acessa os campos em memória: a resposta não dispara consultas depois do commit.
+     */
+    public static MatriculaDTO de(Matricula matricula) {
+        return new MatriculaDTO(matricula.getId(), PessoaDTO.de(matricula.getAluno()), CursoDTO.de(matricula.getCurso()),
+                matricula.getDataMatricula(), matricula.getValorCobrado(), matricula.getStatusPagamento(),
+                matricula.getDataVencimento(), matricula.getVersao());
+    }
 }
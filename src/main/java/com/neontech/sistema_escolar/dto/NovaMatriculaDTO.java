@@ -0,0 +1,21 @@
+package com.neontech.sistema_escolar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Dados de entrada para realizar uma matrícula.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NovaMatriculaDTO {
+    private Long alunoId;
+    private Long cursoId;
+    private BigDecimal valorCobrado;
+    private LocalDate dataVencimento;
+}
@@ -0,0 +1,20 @@
+package com.neontech.sistema_escolar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Uma página de resultados de uma listagem paginada por cursor (keyset).
+ * O cliente repassa o {@code proximoCursor} para buscar a página seguinte;
+ * quando ele vem nulo, não há mais registros.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaDTO<T> {
+    private List<T> itens;
+    private String proximoCursor;
+}
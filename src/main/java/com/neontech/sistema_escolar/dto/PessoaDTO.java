@@ -1,5 +1,6 @@
 package com.neontech.sistema_escolar.dto;
 
+import com.neontech.sistema_escolar.model.Pessoa;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -16,4 +17,15 @@ public class PessoaDTO {
     private LocalDate dataNascimento;
     private String email;
     private String telefone;
+
+    /** Copia os campos de uma pessoa já carregada, sem acessar o banco. */
+    public static PessoaDTO de(Pessoa pessoa) {
+        return new PessoaDTO(pessoa.getId(), pessoa.getNome(), pessoa.getCpf(), pessoa.getDataNascimento(),
+                pessoa.getEmail(), pessoa.getTelefone());
+    }
+
+    /** Entidade com os dados recebidos na requisição, para ser gravada pelo serviço. */
+    public Pessoa paraEntidade() {
+        return new Pessoa(id, nome, cpf, dataNascimento, email, telefone, null);
+    }
 }
\ No newline at end of file
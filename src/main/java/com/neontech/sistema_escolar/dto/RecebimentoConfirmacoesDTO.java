@@ -0,0 +1,16 @@
+package com.neontech.sistema_escolar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resposta ao recebimento de confirmações de pagamento: quantas entraram na fila e quantas já tinham sido recebidas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecebimentoConfirmacoesDTO {
+    private int aceitas;
+    private int duplicadas;
+}
@@ -0,0 +1,21 @@
+package com.neontech.sistema_escolar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resultado de uma reconciliação do resumo financeiro por curso.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliacaoResumoDTO {
+    private LocalDateTime inicio;
+    private long duracaoMs;
+    private int linhasVerificadas;
+    private List<DivergenciaResumoDTO> divergencias; // Já corrigidas quando a reconciliação termina
+}
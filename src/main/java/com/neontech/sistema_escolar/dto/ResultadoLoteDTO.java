@@ -0,0 +1,27 @@
+package com.neontech.sistema_escolar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado do processamento de uma linha de uma importação em lote.
+ * O {@code indice} é a posição da linha na requisição (começando em 0).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoLoteDTO {
+    private int indice;
+    private boolean sucesso;
+    private Long id;          // ID do registro criado, quando houve sucesso
+    private String mensagem;  // Motivo da rejeição, quando não houve sucesso
+
+    public static ResultadoLoteDTO sucesso(int indice, Long id) {
+        return new ResultadoLoteDTO(indice, true, id, null);
+    }
+
+    public static ResultadoLoteDTO falha(int indice, String mensagem) {
+        return new ResultadoLoteDTO(indice, false, null, mensagem);
+    }
+}
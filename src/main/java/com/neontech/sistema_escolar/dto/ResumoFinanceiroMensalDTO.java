@@ -0,0 +1,22 @@
+package com.neontech.sistema_escolar.dto;
+
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Totais das matrículas de um mês em um status de pagamento, calculados pelo banco (GROUP BY).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoFinanceiroMensalDTO {
+    private int ano;
+    private int mes;
+    private StatusPagamento statusPagamento;
+    private long quantidade;
+    private BigDecimal valorTotal;
+}
@@ -1,22 +1,29 @@
 package com.neontech.sistema_escolar.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.persistence.Column;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import java.math.BigDecimal;
+import java.time.Instant;
 
 @Entity
 @Table(name = "cursos")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Cacheable // Cache de segundo nível: o catálogo muda pouco e é lido a cada matrícula
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @EqualsAndHashCode(of = "id") // Baseia equals/hashCode apenas no ID para cursos
 public class Curso {
 
@@ -39,6 +46,12 @@ public class Curso {
     @Column(nullable = false)
     private boolean ativo = true; // Valor padrão true ao criar um novo curso
 
+    // Momento da última gravação, preenchido pelo Hibernate a cada INSERT e UPDATE.
+    // É a versão do curso nas respostas HTTP (ETag e Last-Modified)
+    @UpdateTimestamp
+    @Column(name = "atualizado_em")
+    private Instant atualizadoEm;
+
     // Lombok gera getters, setters, toString, etc.
     // O campo 'ativo' com valor padrão true é inicializado aqui.
     // Se precisar de um construtor que não inclua o 'id' (útil para criar novos cursos antes de salvar),
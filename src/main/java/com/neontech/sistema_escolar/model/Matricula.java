@@ -10,7 +10,9 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "matriculas")
+// Um aluno só pode ter uma matrícula por curso; a regra é garantida pelo banco (ver db/migration)
+@Table(name = "matriculas", uniqueConstraints = @UniqueConstraint(
+        name = "uk_matriculas_pessoa_curso", columnNames = {"pessoa_id", "curso_id"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,7 +20,11 @@ import java.time.LocalDate;
 public class Matricula {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequência com alocação em blocos (pooled): o Hibernate reserva 50 IDs por chamada ao banco
+    // e consegue agrupar os INSERTs em lote (com IDENTITY o JDBC batching fica desativado).
+    // A sequência no banco precisa ter INCREMENT BY 50 (ver db/migration).
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "matriculas_seq")
+    @SequenceGenerator(name = "matriculas_seq", sequenceName = "matriculas_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY) // Muitos para Um: Muitas matrículas podem pertencer a uma Pessoa (aluno).
@@ -42,6 +48,12 @@ public class Matricula {
     @Column(name = "data_vencimento") // Pode ser nulo se o pagamento for único e já pago?
     private LocalDate dataVencimento;
 
+    // Incrementada a cada alteração. O Hibernate confere a versão ao gravar a entidade e as atualizações
+    // de status feitas direto no banco a incrementam; a API a expõe como ETag (If-Match no PATCH)
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
     // Lombok gera getters, setters, toString, etc.
     // FetchType.LAZY é uma otimização: os dados do Aluno e Curso só serão carregados do banco
     // quando você explicitamente acessá-los (ex: matricula.getAluno().getNome()),
@@ -1,16 +1,22 @@
 package com.neontech.sistema_escolar.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Column;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity // JPA: Marca como entidade
@@ -18,11 +24,14 @@ import java.time.LocalDate;
 @Data // Lombok: Gera getters, setters, toString(), equals() e hashCode() automaticamente.
 @NoArgsConstructor // Lombok: Gera um construtor sem argumentos (necessário para JPA).
 @AllArgsConstructor // Lombok: Gera um construtor com todos os argumentos.
+@Cacheable // JPA: Entidade guardada no cache de segundo nível
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Hibernate: Estratégia do cache (região configurada em ehcache.xml)
 @EqualsAndHashCode(of = {"id", "cpf"}) // Lombok: Define que equals() e hashCode() usarão apenas id e cpf (sobrescreve o padrão do @Data se necessário refinar).
 public class Pessoa {
 
     @Id // JPA: Chave primária
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // JPA: Geração automática do ID
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pessoas_seq") // JPA: ID gerado por sequência
+    @SequenceGenerator(name = "pessoas_seq", sequenceName = "pessoas_id_seq", allocationSize = 50) // Reserva 50 IDs por vez, permitindo INSERTs em lote (ver db/migration)
     private Long id;
 
     @Column(nullable = false, length = 100) // JPA: Coluna nome, não nula, tamanho 100
@@ -40,6 +49,10 @@ public class Pessoa {
     @Column(length = 20) // JPA: Coluna telefone, tamanho 20
     private String telefone;
 
+    @UpdateTimestamp // Hibernate: preenchido a cada INSERT e UPDATE; é a versão da pessoa no ETag e no Last-Modified
+    @Column(name = "atualizado_em") // JPA: Coluna atualizado_em
+    private Instant atualizadoEm;
+
     // Observe como os getters, setters, construtores, equals, hashCode e toString
     // foram removidos. O Lombok gerará tudo isso em tempo de compilação!
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.neontech.sistema_escolar.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Totais acumulados das matrículas de um curso em um status de pagamento.
+ * <p>
+ * Os valores são mantidos de forma incremental, na mesma transação de cada matrícula, alteração de status
+ * ou cancelamento; assim o painel lê uma linha por curso/status em vez de agregar a tabela de matrículas.
+ * A reconciliação recalcula tudo a partir das matrículas e corrige eventuais divergências.
+ */
+@Entity
+@Table(name = "resumo_financeiro_curso")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoFinanceiroCurso {
+
+    @EmbeddedId
+    private ResumoFinanceiroCursoId id;
+
+    @Column(nullable = false)
+    private long quantidade;
+
+    @Column(name = "valor_total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal valorTotal;
+}
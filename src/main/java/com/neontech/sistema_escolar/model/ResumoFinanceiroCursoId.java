@@ -0,0 +1,28 @@
+package com.neontech.sistema_escolar.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Chave do resumo financeiro: um curso em um status de pagamento.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoFinanceiroCursoId implements Serializable {
+
+    @Column(name = "curso_id", nullable = false)
+    private Long cursoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status_pagamento", nullable = false)
+    private StatusPagamento statusPagamento;
+}
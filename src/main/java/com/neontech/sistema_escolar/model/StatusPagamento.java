@@ -1,10 +1,33 @@
 package com.neontech.sistema_escolar.model;
 
+import java.util.Set;
+
 /**
  * Enumeração para representar o status do pagamento de uma matrícula.
+ * <p>
+ * Transições permitidas: PENDENTE → PAGO, PENDENTE → ATRASADO e ATRASADO → PAGO.
+ * Um pagamento confirmado não volta atrás.
  */
 public enum StatusPagamento {
     PENDENTE, // O pagamento ainda não foi realizado.
     PAGO,     // O pagamento foi confirmado.
-    ATRASADO  // O pagamento está vencido.
+    ATRASADO; // O pagamento está vencido.
+
+    /**
+     * Status a partir dos quais uma matrícula pode passar para este.
+     */
+    public Set<StatusPagamento> origensPermitidas() {
+        return switch (this) {
+            case PENDENTE -> Set.of();
+            case PAGO -> Set.of(PENDENTE, ATRASADO);
+            case ATRASADO -> Set.of(PENDENTE);
+        };
+    }
+
+    /**
+     * Indica se uma matrícula neste status pode passar para {@code novo}.
+     */
+    public boolean podeMudarPara(StatusPagamento novo) {
+        return novo.origensPermitidas().contains(this);
+    }
 }
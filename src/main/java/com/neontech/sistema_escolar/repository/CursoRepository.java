@@ -1,10 +1,16 @@
 package com.neontech.sistema_escolar.repository;
 
 import com.neontech.sistema_escolar.model.Curso;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositório para a entidade Curso.
@@ -19,6 +25,7 @@ public interface CursoRepository extends JpaRepository<Curso, Long> {
      *
      * @return Uma lista de cursos ativos.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")) // Usa o cache de consultas do Hibernate
     List<Curso> findByAtivoTrue();
 
     /**
@@ -29,6 +36,32 @@ public interface CursoRepository extends JpaRepository<Curso, Long> {
      */
     List<Curso> findByAtivoFalse();
 
+    /**
+     * Busca a próxima página de cursos na paginação por cursor (keyset) sobre o ID.
+     *
+     * @param id O último ID já entregue (a página começa depois dele).
+     * @param limite A quantidade máxima de registros a retornar.
+     * @return Os cursos com ID maior que o informado, em ordem crescente de ID.
+     */
+    List<Curso> findByIdGreaterThanOrderByIdAsc(Long id, Limit limite);
+
+    /**
+     * Percorre todos os cursos em ordem de ID como um Stream, lendo do banco em blocos
+     * de tamanho fixo (fetch size). Deve ser consumido dentro de uma transação e fechado após o uso.
+     *
+     * @return Um Stream com todos os cursos.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Curso> findAllByOrderByIdAsc();
+
+    /**
+     * Lista os IDs de todos os cursos, em ordem crescente.
+     *
+     * @return Os IDs dos cursos.
+     */
+    @Query("select c.id from Curso c order by c.id")
+    List<Long> listarIds();
+
     // JpaRepository<Curso, Long> já fornece métodos como:
     // - save(Curso curso): Salva ou atualiza um curso.
     // - findById(Long id): Busca um curso pelo ID.
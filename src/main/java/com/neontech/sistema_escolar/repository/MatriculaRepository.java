@@ -1,12 +1,28 @@
 package com.neontech.sistema_escolar.repository;
 
+import com.neontech.sistema_escolar.dto.MatriculaDTO;
+import com.neontech.sistema_escolar.dto.ResumoFinanceiroCursoDTO;
+import com.neontech.sistema_escolar.dto.ResumoFinanceiroMensalDTO;
 import com.neontech.sistema_escolar.model.Matricula;
 import com.neontech.sistema_escolar.model.StatusPagamento;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositório para a entidade Matricula.
@@ -15,6 +31,183 @@ import java.util.List;
 @Repository // Indica ao Spring que esta interface é um componente Repository
 public interface MatriculaRepository extends JpaRepository<Matricula, Long> {
 
+    /**
+     * Trecho JPQL comum às consultas que devolvem {@link MatriculaDTO} já montado.
+     * Faz join com aluno e curso no mesmo SELECT, evitando o problema N+1
+     * causado pelas associações LAZY ao converter entidades em DTO.
+     */
+    String SELECT_MATRICULA_DTO = "select new com.neontech.sistema_escolar.dto.MatriculaDTO("
+            + "m.id, "
+            + "a.id, a.nome, a.cpf, a.dataNascimento, a.email, a.telefone, "
+            + "c.id, c.nome, c.descricao, c.valor, c.cargaHoraria, c.ativo, "
+            + "m.dataMatricula, m.valorCobrado, m.statusPagamento, m.dataVencimento, m.versao) "
+            + "from Matricula m join m.aluno a join m.curso c";
+
+    /**
+     * Busca uma matrícula pelo ID já convertida em DTO, com aluno e curso, em uma única consulta.
+     * Fora do cache de consultas: status e versão (o ETag do If-Match) mudam por pagamentos e pela rotina
+     * de inadimplência, inclusive em outras instâncias, e cada instância só invalida o próprio cache.
+     *
+     * @param id O ID da matrícula.
+     * @return Um Optional contendo o DTO da matrícula, ou vazio se não encontrada.
+     */
+    @Query(SELECT_MATRICULA_DTO + " where m.id = :id")
+    Optional<MatriculaDTO> findDTOById(@Param("id") Long id);
+
+    /**
+     * Busca todas as matrículas de um aluno já convertidas em DTO, em uma única consulta.
+     *
+     * @param alunoId O ID da Pessoa (aluno).
+     * @return Uma lista de DTOs das matrículas do aluno, ordenada pelo ID da matrícula.
+     */
+    @Query(SELECT_MATRICULA_DTO + " where a.id = :alunoId order by m.id")
+    List<MatriculaDTO> findDTOByAlunoId(@Param("alunoId") Long alunoId);
+
+    /**
+     * Busca a próxima página de matrículas (já em DTO) na paginação por cursor (keyset) sobre o ID.
+     *
+     * @param id O último ID já entregue (a página começa depois dele).
+     * @param limite A quantidade máxima de registros a retornar.
+     * @return Os DTOs das matrículas com ID maior que o informado, em ordem crescente de ID.
+     */
+    @Query(SELECT_MATRICULA_DTO + " where m.id > :id order by m.id")
+    List<MatriculaDTO> findDTOByIdGreaterThan(@Param("id") Long id, Limit limite);
+
+    /**
+     * Percorre as matrículas (já em DTO) para exportação, em ordem de ID, como um Stream somente-leitura.
+     * As linhas são lidas do banco em blocos (fetch size) e, por serem projeções, não ficam
+     * no contexto de persistência, então a memória usada não cresce com a quantidade de linhas.
+     * Deve ser consumido dentro de uma transação e fechado após o uso.
+     * Filtros nulos são ignorados.
+     *
+     * @param status Filtra pelo status de pagamento (opcional).
+     * @param vencimentoDe Data de vencimento mínima, inclusiva (opcional).
+     * @param vencimentoAte Data de vencimento máxima, inclusiva (opcional).
+     * @return Um Stream com os DTOs das matrículas que atendem aos filtros.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_MATRICULA_DTO
+            + " where (:status is null or m.statusPagamento = :status)"
+            + " and (:vencimentoDe is null or m.dataVencimento >= :vencimentoDe)"
+            + " and (:vencimentoAte is null or m.dataVencimento <= :vencimentoAte)"
+            + " order by m.id")
+    Stream<MatriculaDTO> findDTOParaExportacao(@Param("status") StatusPagamento status,
+                                              @Param("vencimentoDe") LocalDate vencimentoDe,
+                                              @Param("vencimentoAte") LocalDate vencimentoAte);
+
+    /**
+     * Totais por curso e status de pagamento das matrículas dos cursos informados.
+     * Usado para reconciliar o resumo financeiro mantido de forma incremental, um bloco de cursos por vez.
+     *
+     * @param cursoIds Os IDs dos cursos do bloco.
+     * @return Quantidade e soma do valor cobrado por curso e status.
+     */
+    @Query("select new com.neontech.sistema_escolar.dto.ResumoFinanceiroCursoDTO("
+            + "c.id, c.nome, m.statusPagamento, count(m), sum(m.valorCobrado)) "
+            + "from Matricula m join m.curso c "
+            + "where c.id in :cursoIds "
+            + "group by c.id, c.nome, m.statusPagamento")
+    List<ResumoFinanceiroCursoDTO> resumirPorCursos(@Param("cursoIds") Collection<Long> cursoIds);
+
+    /**
+     * Totais por curso e status de pagamento das matrículas com vencimento no intervalo.
+     * Agregado no banco: devolve uma linha por curso/status, não uma por matrícula.
+     *
+     * @param de Data de vencimento inicial, inclusiva.
+     * @param ate Data de vencimento final, inclusiva.
+     * @return Quantidade e soma do valor cobrado por curso e status.
+     */
+    @Query("select new com.neontech.sistema_escolar.dto.ResumoFinanceiroCursoDTO("
+            + "c.id, c.nome, m.statusPagamento, count(m), sum(m.valorCobrado)) "
+            + "from Matricula m join m.curso c "
+            + "where m.dataVencimento >= :de and m.dataVencimento <= :ate "
+            + "group by c.id, c.nome, m.statusPagamento "
+            + "order by c.nome, m.statusPagamento")
+    List<ResumoFinanceiroCursoDTO> resumirPorCursoNoVencimento(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    /**
+     * Totais por curso e status de pagamento das matrículas realizadas no intervalo.
+     *
+     * @param de Data da matrícula inicial, inclusiva.
+     * @param ate Data da matrícula final, inclusiva.
+     * @return Quantidade e soma do valor cobrado por curso e status.
+     */
+    @Query("select new com.neontech.sistema_escolar.dto.ResumoFinanceiroCursoDTO("
+            + "c.id, c.nome, m.statusPagamento, count(m), sum(m.valorCobrado)) "
+            + "from Matricula m join m.curso c "
+            + "where m.dataMatricula >= :de and m.dataMatricula <= :ate "
+            + "group by c.id, c.nome, m.statusPagamento "
+            + "order by c.nome, m.statusPagamento")
+    List<ResumoFinanceiroCursoDTO> resumirPorCursoNaMatricula(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    /**
+     * Totais por mês de vencimento e status de pagamento, no intervalo informado.
+     *
+     * @param de Data de vencimento inicial, inclusiva.
+     * @param ate Data de vencimento final, inclusiva.
+     * @return Quantidade e soma do valor cobrado por mês e status, em ordem cronológica.
+     */
+    @Query("select new com.neontech.sistema_escolar.dto.ResumoFinanceiroMensalDTO("
+            + "year(m.dataVencimento), month(m.dataVencimento), m.statusPagamento, count(m), sum(m.valorCobrado)) "
+            + "from Matricula m "
+            + "where m.dataVencimento >= :de and m.dataVencimento <= :ate "
+            + "group by year(m.dataVencimento), month(m.dataVencimento), m.statusPagamento "
+            + "order by year(m.dataVencimento), month(m.dataVencimento), m.statusPagamento")
+    List<ResumoFinanceiroMensalDTO> resumirPorMesDeVencimento(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    /**
+     * Totais por mês da matrícula e status de pagamento, no intervalo informado.
+     *
+     * @param de Data da matrícula inicial, inclusiva.
+     * @param ate Data da matrícula final, inclusiva.
+     * @return Quantidade e soma do valor cobrado por mês e status, em ordem cronológica.
+     */
+    @Query("select new com.neontech.sistema_escolar.dto.ResumoFinanceiroMensalDTO("
+            + "year(m.dataMatricula), month(m.dataMatricula), m.statusPagamento, count(m), sum(m.valorCobrado)) "
+            + "from Matricula m "
+            + "where m.dataMatricula >= :de and m.dataMatricula <= :ate "
+            + "group by year(m.dataMatricula), month(m.dataMatricula), m.statusPagamento "
+            + "order by year(m.dataMatricula), month(m.dataMatricula), m.statusPagamento")
+    List<ResumoFinanceiroMensalDTO> resumirPorMesDaMatricula(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    /**
+     * Busca uma matrícula pelo ID bloqueando a linha para escrita (SELECT ... FOR UPDATE) até o fim da transação.
+     * Usado antes de alterar o status ou cancelar, para os totais por curso partirem do valor atual.
+     *
+     * @param id O ID da matrícula.
+     * @return A matrícula, se existir.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from Matricula m where m.id = :id")
+    Optional<Matricula> findByIdParaAtualizacao(@Param("id") Long id);
+
+    /**
+     * Lê apenas o que a troca de status precisa saber da matrícula (status atual, versão, curso e valor),
+     * sem carregar a entidade nem bloquear a linha.
+     *
+     * @param id O ID da matrícula.
+     * @return A situação da matrícula, se existir.
+     */
+    @Query("select m.statusPagamento as statusPagamento, m.versao as versao, m.curso.id as cursoId, "
+            + "m.valorCobrado as valorCobrado from Matricula m where m.id = :id")
+    Optional<SituacaoMatricula> findSituacaoById(@Param("id") Long id);
+
+    /**
+     * Troca o status de pagamento com um único UPDATE condicional (compare-and-set): só altera a linha se ela
+     * ainda estiver no status e na versão lidos antes. Não carrega a entidade e grava apenas status e versão.
+     *
+     * @param id O ID da matrícula.
+     * @param esperado O status que a matrícula deve ter.
+     * @param versao A versão que a matrícula deve ter.
+     * @param novo O novo status.
+     * @return 1 se a matrícula foi alterada, 0 se outra transação a alterou antes.
+     */
+    @Modifying
+    @Query("update Matricula m set m.statusPagamento = :novo, m.versao = m.versao + 1 "
+            + "where m.id = :id and m.statusPagamento = :esperado and m.versao = :versao")
+    int atualizarStatusSeInalterada(@Param("id") Long id, @Param("esperado") StatusPagamento esperado,
+                                    @Param("versao") Long versao, @Param("novo") StatusPagamento novo);
+
     /**
      * Busca todas as matrículas de um aluno específico, usando o ID do aluno.
      *
@@ -48,6 +241,59 @@ public interface MatriculaRepository extends JpaRepository<Matricula, Long> {
      */
     List<Matricula> findByDataVencimentoBeforeAndStatusPagamento(LocalDate dataLimite, StatusPagamento status);
 
+    /**
+     * Busca e bloqueia (SELECT ... FOR UPDATE) um bloco de matrículas PENDENTE vencidas antes de {@code hoje},
+     * trazendo só o necessário para marcá-las como ATRASADO e ajustar os totais por curso.
+     * O bloqueio impede que o status mude entre esta leitura e o UPDATE da mesma transação.
+     *
+     * @param hoje A data de referência; vencimentos anteriores a ela estão em atraso.
+     * @param limite A quantidade máxima de matrículas do bloco.
+     * @return As matrículas do bloco, em ordem de ID.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m.id as id, m.curso.id as cursoId, m.valorCobrado as valorCobrado from Matricula m "
+            + "where m.dataVencimento < :hoje "
+            + "and m.statusPagamento = com.neontech.sistema_escolar.model.StatusPagamento.PENDENTE "
+            + "order by m.id")
+    List<MatriculaVencida> findVencidasParaAtraso(@Param("hoje") LocalDate hoje, Limit limite);
+
+    /**
+     * Marca como ATRASADO as matrículas informadas, com um único UPDATE no banco (sem carregar as entidades).
+     *
+     * @param ids Os IDs das matrículas, já bloqueados por {@link #findVencidasParaAtraso}.
+     * @return A quantidade de matrículas alteradas.
+     */
+    @Modifying
+    @Query("update Matricula m set m.statusPagamento = com.neontech.sistema_escolar.model.StatusPagamento.ATRASADO, "
+            + "m.versao = m.versao + 1 where m.id in :ids")
+    int marcarAtrasadas(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Busca e bloqueia (SELECT ... FOR UPDATE) as matrículas informadas que ainda podem ser marcadas como PAGO,
+     * na ordem do ID. Usado pela gravação em lote das confirmações de pagamento.
+     *
+     * @param ids Os IDs das matrículas confirmadas.
+     * @param origens Os status a partir dos quais o pagamento é permitido.
+     * @return Curso, valor e status atual de cada matrícula a pagar.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m.id as id, m.curso.id as cursoId, m.valorCobrado as valorCobrado, "
+            + "m.statusPagamento as statusPagamento from Matricula m "
+            + "where m.id in :ids and m.statusPagamento in :origens order by m.id")
+    List<MatriculaAPagar> findParaPagamento(@Param("ids") Collection<Long> ids,
+                                            @Param("origens") Collection<StatusPagamento> origens);
+
+    /**
+     * Marca como PAGO as matrículas informadas, com um único UPDATE no banco (sem carregar as entidades).
+     *
+     * @param ids Os IDs das matrículas, já bloqueados por {@link #findParaPagamento}.
+     * @return A quantidade de matrículas alteradas.
+     */
+    @Modifying
+    @Query("update Matricula m set m.statusPagamento = com.neontech.sistema_escolar.model.StatusPagamento.PAGO, "
+            + "m.versao = m.versao + 1 where m.id in :ids")
+    int marcarPagas(@Param("ids") Collection<Long> ids);
+
     /**
      * Verifica se já existe uma matrícula para um aluno específico em um curso específico.
      *
@@ -57,6 +303,19 @@ public interface MatriculaRepository extends JpaRepository<Matricula, Long> {
      */
     boolean existsByAlunoIdAndCursoId(Long alunoId, Long cursoId);
 
+    /**
+     * Busca, em uma única consulta, quais combinações aluno/curso já possuem matrícula.
+     * Retorna os pares do produto entre as duas listas; quem chama filtra os que interessam.
+     *
+     * @param alunoIds Os IDs dos alunos.
+     * @param cursoIds Os IDs dos cursos.
+     * @return Os pares (aluno, curso) que já estão matriculados.
+     */
+    @Query("select m.aluno.id as alunoId, m.curso.id as cursoId from Matricula m"
+            + " where m.aluno.id in :alunoIds and m.curso.id in :cursoIds")
+    List<ParAlunoCurso> findParesExistentes(@Param("alunoIds") Collection<Long> alunoIds,
+                                            @Param("cursoIds") Collection<Long> cursoIds);
+
     /**
      * Verifica se existem matrículas para um curso específico.
      * Usado para validar se um curso pode ser excluído.
@@ -66,6 +325,52 @@ public interface MatriculaRepository extends JpaRepository<Matricula, Long> {
      */
     boolean existsByCursoId(Long cursoId);
 
+    /**
+     * Projeção com o par aluno/curso de uma matrícula.
+     */
+    interface ParAlunoCurso {
+        Long getAlunoId();
+
+        Long getCursoId();
+    }
+
+    /**
+     * Projeção com o necessário para marcar uma matrícula vencida como ATRASADO.
+     */
+    interface MatriculaVencida {
+        Long getId();
+
+        Long getCursoId();
+
+        BigDecimal getValorCobrado();
+    }
+
+    /**
+     * Projeção com o necessário para marcar uma matrícula como PAGO e mover os totais do curso.
+     */
+    interface MatriculaAPagar {
+        Long getId();
+
+        Long getCursoId();
+
+        BigDecimal getValorCobrado();
+
+        StatusPagamento getStatusPagamento();
+    }
+
+    /**
+     * Projeção usada na troca de status de pagamento.
+     */
+    interface SituacaoMatricula {
+        StatusPagamento getStatusPagamento();
+
+        Long getVersao();
+
+        Long getCursoId();
+
+        BigDecimal getValorCobrado();
+    }
+
     // JpaRepository<Matricula, Long> já fornece métodos como:
     // - save(Matricula matricula): Salva ou atualiza uma matrícula.
     // - findById(Long id): Busca uma matrícula pelo ID.
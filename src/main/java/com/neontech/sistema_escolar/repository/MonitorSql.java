@@ -0,0 +1,87 @@
+package com.neontech.sistema_escolar.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Observa todos os comandos SQL que passam pelo pool de conexões (JPA, consultas nativas e JdbcTemplate),
+ * pelo proxy do DataSource registrado em {@code ProxyDataSourceConfig}:
+ * <ul>
+ *     <li>registra o tempo de cada comando na métrica {@code sistema_escolar.sql}, por tipo (select, insert...)
+ *         e pelo pool que o executou (dataSourceEscrita ou dataSourceLeitura);</li>
+ *     <li>escreve no log, com os parâmetros, os comandos acima do limite de consulta lenta;</li>
+ *     <li>conta os comandos da thread atual entre {@link #iniciar()} e {@link #encerrar()}
+ *         (usado para o total por requisição).</li>
+ * </ul>
+ * Um lote de inserções ou atualizações conta como um comando.
+ */
+@Component
+public class MonitorSql implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorSql.class);
+
+    private static final ThreadLocal<int[]> CONTAGEM = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final long limiteConsultaLentaMs;
+    private final DefaultQueryLogEntryCreator formatador = new DefaultQueryLogEntryCreator();
+
+    public MonitorSql(MeterRegistry meterRegistry,
+                      @Value("${sistema-escolar.sql.limite-consulta-lenta}") Duration limiteConsultaLenta) {
+        this.meterRegistry = meterRegistry;
+        this.limiteConsultaLentaMs = limiteConsultaLenta.toMillis();
+    }
+
+    /** Começa a contar os comandos executados na thread atual. */
+    public static void iniciar() {
+        CONTAGEM.set(new int[1]);
+    }
+
+    /** Para de contar na thread atual e devolve quantos comandos foram executados desde {@link #iniciar()}. */
+    public static int encerrar() {
+        int[] contagem = CONTAGEM.get();
+        CONTAGEM.remove();
+        return contagem == null ? 0 : contagem[0];
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        int[] contagem = CONTAGEM.get();
+        if (contagem != null) {
+            contagem[0]++;
+        }
+
+        String tipo = queryInfoList.isEmpty() ? "other"
+                : QueryUtils.getQueryType(queryInfoList.get(0).getQuery()).name().toLowerCase(Locale.ROOT);
+        Timer.builder("sistema_escolar.sql")
+                .description("Tempo de execução dos comandos SQL")
+                .tag("tipo", tipo)
+                .tag("datasource", Objects.requireNonNullElse(execInfo.getDataSourceName(), "other"))
+                .register(meterRegistry)
+                .record(execInfo.getElapsedTime(), TimeUnit.MILLISECONDS);
+
+        if (execInfo.getElapsedTime() >= limiteConsultaLentaMs) {
+            log.warn("Comando SQL lento ({} ms): {}", execInfo.getElapsedTime(),
+                    formatador.getLogEntry(execInfo, queryInfoList, false, false, false));
+        }
+    }
+}
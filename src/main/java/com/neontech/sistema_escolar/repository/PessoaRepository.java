@@ -1,10 +1,19 @@
 package com.neontech.sistema_escolar.repository;
 
 import com.neontech.sistema_escolar.model.Pessoa;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositório para a entidade Pessoa.
@@ -21,8 +30,95 @@ public interface PessoaRepository extends JpaRepository<Pessoa, Long> {
      * @param cpf O CPF a ser buscado.
      * @return Um Optional contendo a Pessoa encontrada, ou vazio se não encontrada.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")) // Usa o cache de consultas do Hibernate
     Optional<Pessoa> findByCpf(String cpf);
 
+    /**
+     * Dentre os IDs informados, retorna apenas os que existem, em uma única consulta.
+     *
+     * @param ids Os IDs a verificar.
+     * @return Os IDs que correspondem a pessoas cadastradas.
+     */
+    @Query("select p.id from Pessoa p where p.id in :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Dentre os CPFs informados, retorna apenas os que já estão cadastrados, em uma única consulta.
+     *
+     * @param cpfs Os CPFs a verificar.
+     * @return Os CPFs que já pertencem a alguma pessoa.
+     */
+    @Query("select p.cpf from Pessoa p where p.cpf in :cpfs")
+    List<String> findCpfsExistentes(@Param("cpfs") Collection<String> cpfs);
+
+    /**
+     * Busca a próxima página de pessoas na paginação por cursor (keyset) sobre o ID.
+     *
+     * @param id O último ID já entregue (a página começa depois dele).
+     * @param limite A quantidade máxima de registros a retornar.
+     * @return As pessoas com ID maior que o informado, em ordem crescente de ID.
+     */
+    List<Pessoa> findByIdGreaterThanOrderByIdAsc(Long id, Limit limite);
+
+    /**
+     * Percorre todas as pessoas em ordem de ID como um Stream, lendo do banco em blocos
+     * de tamanho fixo (fetch size) em vez de carregar a tabela inteira na memória.
+     * Deve ser consumido dentro de uma transação e fechado após o uso.
+     *
+     * @return Um Stream com todas as pessoas.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Pessoa> findAllByOrderByIdAsc();
+
+    /**
+     * Busca pessoas por semelhança com um trecho do nome, sem diferenciar maiúsculas nem acentos,
+     * das mais parecidas para as menos parecidas. Consulta específica do PostgreSQL (pg_trgm e unaccent):
+     * o índice GiST de trigramas filtra e já entrega as linhas na ordem do ranking.
+     *
+     * @param termo O trecho digitado.
+     * @param limite A quantidade máxima de registros a retornar.
+     * @param deslocamento Quantos registros do ranking pular (páginas anteriores).
+     * @return As pessoas encontradas, em ordem de semelhança.
+     */
+    @Query(value = "select p.* from pessoas p "
+            + "where texto_busca(:termo) <% texto_busca(p.nome) "
+            + "order by texto_busca(:termo) <<-> texto_busca(p.nome), p.id "
+            + "limit :limite offset :deslocamento", nativeQuery = true)
+    List<Pessoa> buscarPorNome(@Param("termo") String termo, @Param("limite") int limite,
+                               @Param("deslocamento") int deslocamento);
+
+    /**
+     * Busca pessoas por semelhança com um trecho do e-mail, das mais parecidas para as menos parecidas.
+     * Consulta específica do PostgreSQL (pg_trgm).
+     *
+     * @param termo O trecho digitado.
+     * @param limite A quantidade máxima de registros a retornar.
+     * @param deslocamento Quantos registros do ranking pular (páginas anteriores).
+     * @return As pessoas encontradas, em ordem de semelhança.
+     */
+    @Query(value = "select p.* from pessoas p "
+            + "where lower(:termo) <% lower(p.email) "
+            + "order by lower(:termo) <<-> lower(p.email), p.id "
+            + "limit :limite offset :deslocamento", nativeQuery = true)
+    List<Pessoa> buscarPorEmail(@Param("termo") String termo, @Param("limite") int limite,
+                                @Param("deslocamento") int deslocamento);
+
+    /**
+     * Busca pessoas cujo CPF contém a sequência de dígitos informada, ignorando a pontuação.
+     * Consulta específica do PostgreSQL (índice GIN de trigramas sobre os dígitos do CPF).
+     *
+     * @param digitos Os dígitos digitados, sem pontuação.
+     * @param limite A quantidade máxima de registros a retornar.
+     * @param deslocamento Quantos registros pular (páginas anteriores).
+     * @return As pessoas encontradas, em ordem de CPF.
+     */
+    @Query(value = "select p.* from pessoas p "
+            + "where regexp_replace(p.cpf, '[^0-9]', '', 'g') like '%' || :digitos || '%' "
+            + "order by p.cpf, p.id "
+            + "limit :limite offset :deslocamento", nativeQuery = true)
+    List<Pessoa> buscarPorTrechoDoCpf(@Param("digitos") String digitos, @Param("limite") int limite,
+                                      @Param("deslocamento") int deslocamento);
+
     // O JpaRepository<Pessoa, Long> já fornece métodos como:
     // - save(Pessoa pessoa): Salva ou atualiza uma pessoa.
     // - findById(Long id): Busca uma pessoa pelo ID.
@@ -0,0 +1,102 @@
+package com.neontech.sistema_escolar.repository;
+
+import com.neontech.sistema_escolar.dto.ResumoFinanceiroCursoDTO;
+import com.neontech.sistema_escolar.model.ResumoFinanceiroCurso;
+import com.neontech.sistema_escolar.model.ResumoFinanceiroCursoId;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositório para os totais acumulados por curso e status de pagamento.
+ */
+@Repository
+public interface ResumoFinanceiroCursoRepository extends JpaRepository<ResumoFinanceiroCurso, ResumoFinanceiroCursoId> {
+
+    /**
+     * Soma os valores informados (positivos ou negativos) aos totais de um curso/status, direto no banco.
+     * O incremento é atômico: duas transações simultâneas no mesmo curso não perdem atualizações.
+     *
+     * @param cursoId O ID do curso.
+     * @param status O status de pagamento.
+     * @param quantidade A variação na quantidade de matrículas.
+     * @param valor A variação no valor total.
+     * @return 1 se a linha existia e foi atualizada, 0 caso contrário.
+     */
+    @Modifying
+    @Query("update ResumoFinanceiroCurso r set r.quantidade = r.quantidade + :quantidade, "
+            + "r.valorTotal = r.valorTotal + :valor "
+            + "where r.id.cursoId = :cursoId and r.id.statusPagamento = :status")
+    int incrementar(@Param("cursoId") Long cursoId, @Param("status") StatusPagamento status,
+                    @Param("quantidade") long quantidade, @Param("valor") BigDecimal valor);
+
+    /**
+     * Cria zerada a linha de um curso/status, se ainda não existir. Uma transação concorrente que crie a mesma
+     * linha não causa erro: o INSERT espera por ela e não faz nada. Em seguida {@link #incrementar} encontra a linha.
+     * Só a tabela do resumo é declarada como afetada, para o Hibernate não esvaziar os demais caches.
+     *
+     * @param cursoId O ID do curso.
+     * @param status O nome do status de pagamento.
+     * @return 1 se a linha foi criada, 0 se já existia.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumo_financeiro_curso"))
+    @Query(value = "insert into resumo_financeiro_curso (curso_id, status_pagamento, quantidade, valor_total) "
+            + "values (:cursoId, :status, 0, 0) on conflict do nothing", nativeQuery = true)
+    int criarSeAusente(@Param("cursoId") Long cursoId, @Param("status") String status);
+
+    /**
+     * Lista os totais acumulados com o nome do curso, omitindo os que estão zerados.
+     * Lê uma linha por curso/status, independentemente da quantidade de matrículas.
+     *
+     * @return Os totais por curso e status, ordenados pelo nome do curso.
+     */
+    @Query("select new com.neontech.sistema_escolar.dto.ResumoFinanceiroCursoDTO("
+            + "c.id, c.nome, r.id.statusPagamento, r.quantidade, r.valorTotal) "
+            + "from ResumoFinanceiroCurso r join Curso c on c.id = r.id.cursoId "
+            + "where r.quantidade <> 0 "
+            + "order by c.nome, r.id.statusPagamento")
+    List<ResumoFinanceiroCursoDTO> listarComCurso();
+
+    /**
+     * Carrega as linhas do resumo dos cursos informados bloqueando-as para escrita (SELECT ... FOR UPDATE).
+     * Usado pela reconciliação, um bloco de cursos por vez: enquanto o bloco é verificado, só as matrículas
+     * desses cursos esperam para atualizar os totais.
+     *
+     * @param cursoIds Os IDs dos cursos do bloco.
+     * @return As linhas do resumo desses cursos, em ordem de curso e status.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from ResumoFinanceiroCurso r where r.id.cursoId in :cursoIds "
+            + "order by r.id.cursoId, r.id.statusPagamento")
+    List<ResumoFinanceiroCurso> findParaReconciliacao(@Param("cursoIds") Collection<Long> cursoIds);
+
+    /**
+     * Lista os IDs de curso presentes no resumo, inclusive os de cursos que já não existem.
+     *
+     * @return Os IDs de curso distintos do resumo.
+     */
+    @Query("select distinct r.id.cursoId from ResumoFinanceiroCurso r")
+    List<Long> listarCursoIds();
+
+    /**
+     * Remove os totais de um curso (usado quando o curso é excluído).
+     *
+     * @param cursoId O ID do curso.
+     */
+    @Modifying
+    @Query("delete from ResumoFinanceiroCurso r where r.id.cursoId = :cursoId")
+    void deleteByCursoId(@Param("cursoId") Long cursoId);
+}
@@ -0,0 +1,26 @@
+package com.neontech.sistema_escolar.service;
+
+import com.neontech.sistema_escolar.dto.ConfirmacaoPagamentoDTO;
+import com.neontech.sistema_escolar.dto.RecebimentoConfirmacoesDTO;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interface para o serviço de recebimento de confirmações de pagamento em volume (janelas de compensação bancária).
+ * As confirmações entram em uma fila em memória e são gravadas em lote, em segundo plano.
+ */
+public interface ConfirmacaoPagamentoService {
+
+    /**
+     * Coloca as confirmações na fila de gravação e retorna sem esperar pelo banco.
+     * Confirmações com chave já recebida são descartadas. As demais entram todas ou nenhuma.
+     * A fila fica em memória: se a aplicação parar antes da gravação, o gateway precisa reenviar
+     * (com as mesmas chaves, o reenvio é seguro).
+     *
+     * @param confirmacoes As confirmações, cada uma com chave e ID da matrícula.
+     * @return Quantas foram aceitas e quantas eram duplicadas, ou vazio se a fila não tiver espaço para todas.
+     * @throws IllegalArgumentException se alguma confirmação não tiver chave ou ID da matrícula.
+     */
+    Optional<RecebimentoConfirmacoesDTO> receber(List<ConfirmacaoPagamentoDTO> confirmacoes);
+}
@@ -0,0 +1,293 @@
+package com.neontech.sistema_escolar.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.neontech.sistema_escolar.dto.ConfirmacaoPagamentoDTO;
+import com.neontech.sistema_escolar.dto.RecebimentoConfirmacoesDTO;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import com.neontech.sistema_escolar.repository.MatriculaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Implementação do recebimento de confirmações de pagamento.
+ * <p>
+ * Uma thread consome a fila: pega a primeira confirmação, espera um pouco por outras para completar o lote
+ * e grava o lote em uma transação — um SELECT ... FOR UPDATE das matrículas que ainda podem ser pagas,
+ * um único UPDATE ... WHERE id IN (...) e a transferência dos totais de cada curso.
+ * <p>
+ * As confirmações já foram respondidas com 202 e o gateway não vai reenviá-las: se a gravação falhar por um
+ * motivo passageiro (timeout do pool, deadlock, troca do banco principal), a thread segura o lote e tenta de novo,
+ * com espera crescente, até conseguir. Só um erro que não se resolve repetindo descarta o lote.
+ */
+@Service
+public class ConfirmacaoPagamentoServiceImpl implements ConfirmacaoPagamentoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfirmacaoPagamentoServiceImpl.class);
+
+    // Quanto tempo a thread de gravação espera por confirmações antes de conferir se deve parar
+    private static final Duration ESPERA_FILA_VAZIA = Duration.ofSeconds(1);
+
+    private final MatriculaRepository matriculaRepository;
+    private final ResumoFinanceiroService resumoFinanceiroService;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+    private final Duration esperaLote;
+    private final Duration esperaRetentativa;
+    private final Duration esperaRetentativaMaxima;
+    private final BlockingQueue<ConfirmacaoPagamentoDTO> fila;
+    private final Cache<String, Boolean> chavesRecebidas;
+    private final Timer duracaoGravacao;
+    private final MeterRegistry meterRegistry;
+
+    private volatile boolean ativo;
+    // Acorda a thread de gravação que está esperando para repetir um lote quando a aplicação encerra
+    private final CountDownLatch parada = new CountDownLatch(1);
+    private Thread gravacao;
+
+    public ConfirmacaoPagamentoServiceImpl(MatriculaRepository matriculaRepository,
+                                           ResumoFinanceiroService resumoFinanceiroService,
+                                           TransactionTemplate transactionTemplate,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${sistema-escolar.pagamentos.capacidade-fila}") int capacidadeFila,
+                                           @Value("${sistema-escolar.pagamentos.tamanho-lote}") int tamanhoLote,
+                                           @Value("${sistema-escolar.pagamentos.espera-lote}") Duration esperaLote,
+                                           @Value("${sistema-escolar.pagamentos.validade-chave}") Duration validadeChave,
+                                           @Value("${sistema-escolar.pagamentos.maximo-chaves}") long maximoChaves,
+                                           @Value("${sistema-escolar.pagamentos.espera-retentativa}") Duration esperaRetentativa,
+                                           @Value("${sistema-escolar.pagamentos.espera-retentativa-maxima}") Duration esperaRetentativaMaxima) {
+        this.matriculaRepository = matriculaRepository;
+        this.resumoFinanceiroService = resumoFinanceiroService;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanhoLote = tamanhoLote;
+        this.esperaLote = esperaLote;
+        this.esperaRetentativa = esperaRetentativa;
+        this.esperaRetentativaMaxima = esperaRetentativaMaxima;
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        this.meterRegistry = meterRegistry;
+        // Acima de maximoChaves as mais antigas são esquecidas antes da validade: um reenvio delas seria aceito de novo
+        this.chavesRecebidas = Caffeine.newBuilder()
+                .expireAfterWrite(validadeChave)
+                .maximumSize(maximoChaves)
+                .evictionListener((String chave, Boolean recebida, RemovalCause causa) -> {
+                    if (causa == RemovalCause.SIZE) {
+                        contar("chave_esquecida", 1);
+                    }
+                })
+                .build();
+        Gauge.builder("sistema_escolar.pagamentos.fila", fila, BlockingQueue::size)
+                .description("Confirmações de pagamento aguardando gravação")
+                .register(meterRegistry);
+        this.duracaoGravacao = Timer.builder("sistema_escolar.pagamentos.gravacao")
+                .description("Duração da gravação de cada lote de confirmações de pagamento")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        ativo = true;
+        gravacao = Thread.ofPlatform().name("gravacao-pagamentos").daemon(true).start(this::consumirFila);
+    }
+
+    /**
+     * Para a thread de gravação e grava o que ainda estiver na fila antes de a aplicação encerrar.
+     */
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        ativo = false;
+        parada.countDown();
+        gravacao.join(ESPERA_FILA_VAZIA.multipliedBy(2).toMillis());
+        List<ConfirmacaoPagamentoDTO> restantes = new ArrayList<>();
+        fila.drainTo(restantes);
+        for (int inicio = 0; inicio < restantes.size(); inicio += tamanhoLote) {
+            gravarAteConseguir(restantes.subList(inicio, Math.min(inicio + tamanhoLote, restantes.size())));
+        }
+    }
+
+    @Override
+    public Optional<RecebimentoConfirmacoesDTO> receber(List<ConfirmacaoPagamentoDTO> confirmacoes) {
+        for (ConfirmacaoPagamentoDTO confirmacao : confirmacoes) {
+            if (confirmacao.getChave() == null || confirmacao.getChave().isBlank() || confirmacao.getMatriculaId() == null) {
+                throw new IllegalArgumentException("Toda confirmação precisa de chave e matriculaId.");
+            }
+        }
+        // Sincronizado para a verificação de espaço e a inclusão na fila não se intercalarem entre requisições
+        synchronized (fila) {
+            List<ConfirmacaoPagamentoDTO> novas = new ArrayList<>();
+            Set<String> chavesDaRequisicao = new HashSet<>();
+            for (ConfirmacaoPagamentoDTO confirmacao : confirmacoes) {
+                if (chavesRecebidas.getIfPresent(confirmacao.getChave()) == null
+                        && chavesDaRequisicao.add(confirmacao.getChave())) {
+                    novas.add(confirmacao);
+                }
+            }
+            if (novas.size() > fila.remainingCapacity()) {
+                contar("rejeitada", confirmacoes.size());
+                return Optional.empty();
+            }
+            for (ConfirmacaoPagamentoDTO confirmacao : novas) {
+                chavesRecebidas.put(confirmacao.getChave(), Boolean.TRUE);
+                fila.add(confirmacao);
+            }
+            int duplicadas = confirmacoes.size() - novas.size();
+            contar("aceita", novas.size());
+            contar("duplicada", duplicadas);
+            return Optional.of(new RecebimentoConfirmacoesDTO(novas.size(), duplicadas));
+        }
+    }
+
+    private void consumirFila() {
+        while (ativo) {
+            try {
+                List<ConfirmacaoPagamentoDTO> lote = proximoLote();
+                if (!lote.isEmpty()) {
+                    gravarAteConseguir(lote);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Falha inesperada na gravação das confirmações de pagamento.", e);
+            }
+        }
+    }
+
+    // Espera pela primeira confirmação e junta as que chegarem até o lote encher ou o tempo de espera acabar
+    private List<ConfirmacaoPagamentoDTO> proximoLote() throws InterruptedException {
+        List<ConfirmacaoPagamentoDTO> lote = new ArrayList<>(tamanhoLote);
+        ConfirmacaoPagamentoDTO primeira = fila.poll(ESPERA_FILA_VAZIA.toMillis(), TimeUnit.MILLISECONDS);
+        if (primeira == null) {
+            return lote;
+        }
+        lote.add(primeira);
+        long fimEspera = System.nanoTime() + esperaLote.toNanos();
+        while (lote.size() < tamanhoLote) {
+            fila.drainTo(lote, tamanhoLote - lote.size());
+            long restante = fimEspera - System.nanoTime();
+            if (lote.size() >= tamanhoLote || restante <= 0) {
+                break;
+            }
+            ConfirmacaoPagamentoDTO proxima = fila.poll(restante, TimeUnit.NANOSECONDS);
+            if (proxima == null) {
+                break;
+            }
+            lote.add(proxima);
+        }
+        return lote;
+    }
+
+    // Repete o lote enquanto a falha for passageira; durante o encerramento há uma única tentativa
+    private void gravarAteConseguir(List<ConfirmacaoPagamentoDTO> lote) throws InterruptedException {
+        Duration espera = esperaRetentativa;
+        while (true) {
+            try {
+                gravar(lote);
+                return;
+            } catch (RuntimeException e) {
+                if (!falhaPassageira(e) || !ativo) {
+                    descartar(lote, e);
+                    return;
+                }
+                log.warn("Falha passageira ao gravar {} confirmação(ões) de pagamento; nova tentativa em {} ms.",
+                        lote.size(), espera.toMillis(), e);
+                contar("retentativa", lote.size());
+            }
+            parada.await(espera.toMillis(), TimeUnit.MILLISECONDS);
+            espera = espera.multipliedBy(2);
+            if (espera.compareTo(esperaRetentativaMaxima) > 0) {
+                espera = esperaRetentativaMaxima;
+            }
+        }
+    }
+
+    // Repetir é seguro: a transação não gravou nada, e as matrículas que já estiverem pagas são ignoradas
+    private static boolean falhaPassageira(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException // Inclui o timeout do pool de conexões
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private void gravar(List<ConfirmacaoPagamentoDTO> lote) {
+        Set<Long> ids = lote.stream().map(ConfirmacaoPagamentoDTO::getMatriculaId)
+                .collect(Collectors.toCollection(TreeSet::new));
+        long inicio = System.nanoTime();
+        try {
+            Integer pagas = transactionTemplate.execute(status -> marcarPagas(ids));
+            int aplicadas = pagas == null ? 0 : pagas;
+            contar("aplicada", aplicadas);
+            contar("ignorada", lote.size() - aplicadas); // Já pagas, repetidas no lote ou inexistentes
+        } finally {
+            duracaoGravacao.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void descartar(List<ConfirmacaoPagamentoDTO> lote, RuntimeException e) {
+        // Nada do lote foi gravado: libera as chaves e registra as matrículas para conferência
+        log.error("Falha ao gravar {} confirmação(ões) de pagamento, descartadas (matrículas {}); "
+                        + "as chaves foram liberadas para reenvio.", lote.size(),
+                lote.stream().map(ConfirmacaoPagamentoDTO::getMatriculaId).toList(), e);
+        lote.forEach(confirmacao -> chavesRecebidas.invalidate(confirmacao.getChave()));
+        contar("falha", lote.size());
+    }
+
+    // Um lote: bloqueia as matrículas que ainda podem ser pagas, marca todas com um único UPDATE
+    // e move os totais de cada curso a partir do status que cada uma tinha
+    private int marcarPagas(Set<Long> ids) {
+        List<MatriculaRepository.MatriculaAPagar> aPagar =
+                matriculaRepository.findParaPagamento(ids, StatusPagamento.PAGO.origensPermitidas());
+        if (aPagar.isEmpty()) {
+            return 0;
+        }
+        matriculaRepository.marcarPagas(aPagar.stream().map(MatriculaRepository.MatriculaAPagar::getId).toList());
+
+        Map<Long, Map<StatusPagamento, List<MatriculaRepository.MatriculaAPagar>>> porCursoEStatus = aPagar.stream()
+                .collect(Collectors.groupingBy(MatriculaRepository.MatriculaAPagar::getCursoId, TreeMap::new,
+                        Collectors.groupingBy(MatriculaRepository.MatriculaAPagar::getStatusPagamento,
+                                () -> new EnumMap<>(StatusPagamento.class), Collectors.toList())));
+        porCursoEStatus.forEach((cursoId, porStatus) -> porStatus.forEach((statusAnterior, matriculas) ->
+                resumoFinanceiroService.transferir(cursoId, statusAnterior, StatusPagamento.PAGO, matriculas.size(),
+                        matriculas.stream().map(MatriculaRepository.MatriculaAPagar::getValorCobrado)
+                                .reduce(BigDecimal.ZERO, BigDecimal::add))));
+        return aPagar.size();
+    }
+
+    private void contar(String resultado, int quantidade) {
+        Counter.builder("sistema_escolar.pagamentos.confirmacoes")
+                .description("Confirmações de pagamento por resultado")
+                .tag("resultado", resultado)
+                .register(meterRegistry)
+                .increment(quantidade);
+    }
+}
@@ -1,9 +1,11 @@
 package com.neontech.sistema_escolar.service;
 
+import com.neontech.sistema_escolar.dto.PaginaDTO;
 import com.neontech.sistema_escolar.model.Curso;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Interface para o serviço de gestão de cursos.
@@ -34,6 +36,23 @@ public interface CursoService {
      */
     List<Curso> listarTodos();
 
+    /**
+     * Lista uma página de cursos usando paginação por cursor (keyset) sobre o ID.
+     *
+     * @param cursor O cursor devolvido pela página anterior, ou nulo para a primeira página.
+     * @param tamanho A quantidade de registros desejada (limitada ao máximo configurado).
+     * @return A página com os cursos e o cursor da próxima página.
+     * @throws IllegalArgumentException se o cursor for inválido.
+     */
+    PaginaDTO<Curso> listarPagina(String cursor, Integer tamanho);
+
+    /**
+     * Percorre todos os cursos, lendo do banco em blocos, sem carregar a tabela inteira na memória.
+     *
+     * @param consumidor Função chamada para cada registro lido.
+     */
+    void percorrerTodos(Consumer<Curso> consumidor);
+
     /**
      * Lista apenas os cursos que estão ativos.
      *
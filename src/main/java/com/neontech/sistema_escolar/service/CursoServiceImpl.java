@@ -1,41 +1,76 @@
 package com.neontech.sistema_escolar.service;
 
+import com.neontech.sistema_escolar.config.CacheConfig;
+import com.neontech.sistema_escolar.dto.PaginaDTO;
 import com.neontech.sistema_escolar.model.Curso;
 import com.neontech.sistema_escolar.repository.CursoRepository;
 import com.neontech.sistema_escolar.repository.MatriculaRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implementação do serviço de gestão de cursos.
+ * As leituras por ID e a listagem de ativos ficam em cache (o catálogo muda poucas vezes por semestre);
+ * toda alteração limpa os caches, inclusive o da listagem de ativos já serializada para a API.
+ * Por padrão os métodos são somente leitura (réplica, quando configurada). As cargas que alimentam os caches
+ * rodam em transação de escrita, no banco principal: lidas de uma réplica atrasada logo depois de uma alteração,
+ * guardariam a versão antiga até a próxima limpeza. Um acerto no cache abre a transação sem tocar em conexão.
  */
 @Service
+@Transactional(readOnly = true)
+@Timed("sistema_escolar.servico")
 public class CursoServiceImpl implements CursoService {
 
     private final CursoRepository cursoRepository;
     private final MatriculaRepository matriculaRepository;
+    private final ResumoFinanceiroService resumoFinanceiroService;
+    private final CursorPaginacao cursorPaginacao;
+    private final EntityManager entityManager;
 
     // Injeção de dependência via construtor
-    public CursoServiceImpl(CursoRepository cursoRepository, MatriculaRepository matriculaRepository) {
+    public CursoServiceImpl(CursoRepository cursoRepository,
+                            MatriculaRepository matriculaRepository,
+                            ResumoFinanceiroService resumoFinanceiroService,
+                            CursorPaginacao cursorPaginacao,
+                            EntityManager entityManager) {
         this.cursoRepository = cursoRepository;
         this.matriculaRepository = matriculaRepository;
+        this.resumoFinanceiroService = resumoFinanceiroService;
+        this.cursorPaginacao = cursorPaginacao;
+        this.entityManager = entityManager;
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.CURSOS, CacheConfig.CURSOS_ATIVOS, CacheConfig.CURSOS_ATIVOS_JSON},
+            allEntries = true)
     public Curso salvar(Curso curso) {
         // Aqui poderiam ser feitas validações, como:
         // - Verificar se o nome está preenchido
         // - Verificar se o valor é positivo
         // - etc.
 
-        return cursoRepository.save(curso);
+        boolean novo = curso.getId() == null;
+        Curso cursoSalvo = cursoRepository.save(curso);
+        if (novo) {
+            // Totais zerados já existentes: as primeiras matrículas só fazem UPDATE
+            resumoFinanceiroService.inicializarCurso(cursoSalvo.getId());
+        }
+        return cursoSalvo;
     }
 
     @Override
+    @Transactional // Carga do cache sempre do banco principal
+    @Cacheable(cacheNames = CacheConfig.CURSOS, key = "#id", unless = "#result == null") // Não guarda "não encontrado"
     public Optional<Curso> buscarPorId(Long id) {
         return cursoRepository.findById(id);
     }
@@ -46,12 +81,37 @@ public class CursoServiceImpl implements CursoService {
     }
 
     @Override
+    public PaginaDTO<Curso> listarPagina(String cursor, Integer tamanho) {
+        long ultimoId = cursorPaginacao.decodificar(cursor);
+        int tamanhoPagina = cursorPaginacao.resolverTamanho(tamanho);
+        List<Curso> resultado = cursoRepository.findByIdGreaterThanOrderByIdAsc(
+                ultimoId, cursorPaginacao.limiteConsulta(tamanhoPagina));
+        return cursorPaginacao.montarPagina(resultado, tamanhoPagina, Curso::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true) // O Stream precisa da transação aberta enquanto é consumido
+    public void percorrerTodos(Consumer<Curso> consumidor) {
+        try (Stream<Curso> cursos = cursoRepository.findAllByOrderByIdAsc()) {
+            cursos.forEach(curso -> {
+                consumidor.accept(curso);
+                // Desanexa a entidade já entregue para o contexto de persistência não crescer com a tabela
+                entityManager.detach(curso);
+            });
+        }
+    }
+
+    @Override
+    @Transactional // Carga do cache sempre do banco principal (também alimenta o catálogo serializado)
+    @Cacheable(CacheConfig.CURSOS_ATIVOS)
     public List<Curso> listarAtivos() {
         return cursoRepository.findByAtivoTrue();
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.CURSOS, CacheConfig.CURSOS_ATIVOS, CacheConfig.CURSOS_ATIVOS_JSON},
+            allEntries = true)
     public Curso alterarStatus(Long id, boolean ativo) {
         // Buscar o curso pelo ID
         Curso curso = cursoRepository.findById(id)
@@ -66,6 +126,8 @@ public class CursoServiceImpl implements CursoService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.CURSOS, CacheConfig.CURSOS_ATIVOS, CacheConfig.CURSOS_ATIVOS_JSON},
+            allEntries = true)
     public void excluir(Long id) {
         // Verificar se o curso existe
         Curso curso = cursoRepository.findById(id)
@@ -77,7 +139,8 @@ public class CursoServiceImpl implements CursoService {
             throw new RuntimeException("Não é possível excluir o curso pois existem matrículas associadas a ele.");
         }
 
-        // Se não houver matrículas, exclui o curso
+        // Se não houver matrículas, exclui o curso e os seus totais (zerados)
+        resumoFinanceiroService.removerCurso(id);
         cursoRepository.deleteById(id);
     }
 }
@@ -0,0 +1,87 @@
+package com.neontech.sistema_escolar.service;
+
+import com.neontech.sistema_escolar.dto.PaginaDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Regras comuns da paginação por cursor (keyset) sobre o ID das entidades.
+ * <p>
+ * Em vez de OFFSET, cada página busca os registros com ID maior que o último ID entregue,
+ * o que usa o índice da chave primária e tem custo constante em qualquer ponto da tabela.
+ * O cursor devolvido ao cliente é opaco (Base64 do último ID).
+ */
+@Component
+public class CursorPaginacao {
+
+    private final int tamanhoPadrao;
+    private final int tamanhoMaximo;
+
+    public CursorPaginacao(@Value("${sistema-escolar.paginacao.tamanho-padrao:50}") int tamanhoPadrao,
+                           @Value("${sistema-escolar.paginacao.tamanho-maximo:500}") int tamanhoMaximo) {
+        this.tamanhoPadrao = tamanhoPadrao;
+        this.tamanhoMaximo = tamanhoMaximo;
+    }
+
+    /**
+     * Converte o cursor recebido do cliente no último ID já entregue.
+     *
+     * @param cursor O cursor opaco, ou nulo/vazio para a primeira página.
+     * @return O ID a partir do qual a próxima página começa (exclusivo).
+     * @throws IllegalArgumentException se o cursor for inválido.
+     */
+    public long decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return Long.parseLong(valor);
+        } catch (IllegalArgumentException e) { // inclui NumberFormatException
+            throw new IllegalArgumentException("Cursor de paginação inválido: " + cursor);
+        }
+    }
+
+    /**
+     * Gera o cursor opaco que aponta para depois do ID informado.
+     */
+    public String codificar(long ultimoId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(ultimoId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Aplica o tamanho padrão quando não informado e limita ao máximo configurado.
+     */
+    public int resolverTamanho(Integer tamanho) {
+        if (tamanho == null || tamanho <= 0) {
+            return tamanhoPadrao;
+        }
+        return Math.min(tamanho, tamanhoMaximo);
+    }
+
+    /**
+     * Limite a ser usado na consulta: um registro a mais que o tamanho da página,
+     * apenas para saber se existe uma próxima página.
+     */
+    public Limit limiteConsulta(int tamanho) {
+        return Limit.of(tamanho + 1);
+    }
+
+    /**
+     * Monta a página a partir do resultado da consulta (que pode trazer um registro excedente).
+     */
+    public <T> PaginaDTO<T> montarPagina(List<T> resultado, int tamanho, Function<T, Long> extrairId) {
+        if (resultado.size() <= tamanho) {
+            return new PaginaDTO<>(resultado, null);
+        }
+        List<T> itens = resultado.subList(0, tamanho);
+        return new PaginaDTO<>(List.copyOf(itens), codificar(extrairId.apply(itens.get(tamanho - 1))));
+    }
+}
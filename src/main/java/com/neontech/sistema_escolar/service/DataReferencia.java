@@ -0,0 +1,9 @@
+package com.neontech.sistema_escolar.service;
+
+/**
+ * Data da matrícula usada para filtrar e agrupar os relatórios financeiros.
+ */
+public enum DataReferencia {
+    VENCIMENTO, // Data de vencimento do pagamento (o que deve entrar no mês).
+    MATRICULA   // Data em que a matrícula foi realizada (o que foi vendido no mês).
+}
@@ -0,0 +1,31 @@
+package com.neontech.sistema_escolar.service;
+
+import com.neontech.sistema_escolar.dto.ExecucaoInadimplenciaDTO;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interface para o serviço de controle de inadimplência.
+ * Define a rotina que marca como ATRASADO as matrículas PENDENTE com vencimento passado.
+ */
+public interface InadimplenciaService {
+
+    /**
+     * Marca como ATRASADO todas as matrículas PENDENTE vencidas antes de hoje.
+     * A alteração é feita no banco com UPDATEs em blocos, cada um na sua própria transação,
+     * para não manter milhões de linhas bloqueadas de uma vez.
+     *
+     * @param origem Quem disparou a execução ("agendada" ou "manual"), gravado no histórico.
+     * @return O registro da execução, ou vazio se outra execução já estiver em andamento.
+     */
+    Optional<ExecucaoInadimplenciaDTO> marcarAtrasadas(String origem);
+
+    /**
+     * Lista as execuções mais recentes da rotina, da mais nova para a mais antiga.
+     * O histórico fica em memória e é perdido quando a aplicação reinicia.
+     *
+     * @return As últimas execuções.
+     */
+    List<ExecucaoInadimplenciaDTO> listarExecucoes();
+}
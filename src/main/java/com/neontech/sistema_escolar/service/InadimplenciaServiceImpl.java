@@ -0,0 +1,147 @@
+package com.neontech.sistema_escolar.service;
+
+import com.neontech.sistema_escolar.dto.ExecucaoInadimplenciaDTO;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import com.neontech.sistema_escolar.repository.MatriculaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implementação do serviço de controle de inadimplência.
+ */
+@Service
+public class InadimplenciaServiceImpl implements InadimplenciaService {
+
+    private static final Logger log = LoggerFactory.getLogger(InadimplenciaServiceImpl.class);
+
+    // Quantidade de execuções mantidas no histórico em memória
+    private static final int TAMANHO_HISTORICO = 50;
+
+    private final MatriculaRepository matriculaRepository;
+    private final ResumoFinanceiroService resumoFinanceiroService;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoBloco;
+    private final Timer duracaoExecucao;
+    private final Counter matriculasAtrasadas;
+
+    // Impede que a execução agendada e uma manual rodem ao mesmo tempo nesta instância
+    private final ReentrantLock emExecucao = new ReentrantLock();
+    private final Deque<ExecucaoInadimplenciaDTO> historico = new ArrayDeque<>();
+
+    public InadimplenciaServiceImpl(MatriculaRepository matriculaRepository,
+                                    ResumoFinanceiroService resumoFinanceiroService,
+                                    TransactionTemplate transactionTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${sistema-escolar.inadimplencia.tamanho-bloco:5000}") int tamanhoBloco) {
+        this.matriculaRepository = matriculaRepository;
+        this.resumoFinanceiroService = resumoFinanceiroService;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanhoBloco = tamanhoBloco;
+        this.duracaoExecucao = Timer.builder("sistema_escolar.inadimplencia.execucao")
+                .description("Duração de cada execução da rotina de inadimplência")
+                .register(meterRegistry);
+        this.matriculasAtrasadas = Counter.builder("sistema_escolar.inadimplencia.matriculas_atrasadas")
+                .description("Matrículas marcadas como ATRASADO pela rotina de inadimplência")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${sistema-escolar.inadimplencia.cron}")
+    public void executarAgendada() {
+        if (marcarAtrasadas("agendada").isEmpty()) {
+            log.warn("Rotina de inadimplência ignorada: já existe uma execução em andamento.");
+        }
+    }
+
+    @Override
+    public Optional<ExecucaoInadimplenciaDTO> marcarAtrasadas(String origem) {
+        if (!emExecucao.tryLock()) {
+            return Optional.empty();
+        }
+        try {
+            LocalDate hoje = LocalDate.now();
+            LocalDateTime inicio = LocalDateTime.now();
+            long inicioNanos = System.nanoTime();
+            int blocos = 0;
+            long total = 0;
+            String erro = null;
+            try {
+                // Cada bloco é um UPDATE em uma transação curta: os bloqueios são liberados a cada commit
+                // e, se a rotina falhar no meio, o que já foi marcado continua marcado.
+                int alteradas;
+                do {
+                    Integer resultado = transactionTemplate.execute(status -> marcarBloco(hoje));
+                    alteradas = resultado == null ? 0 : resultado;
+                    blocos++;
+                    total += alteradas;
+                    matriculasAtrasadas.increment(alteradas);
+                } while (alteradas == tamanhoBloco);
+            } catch (RuntimeException e) {
+                log.error("Falha na rotina de inadimplência após {} matrícula(s) marcada(s).", total, e);
+                erro = e.getMessage();
+            }
+
+            long duracaoNanos = System.nanoTime() - inicioNanos;
+            duracaoExecucao.record(Duration.ofNanos(duracaoNanos));
+            ExecucaoInadimplenciaDTO execucao = new ExecucaoInadimplenciaDTO(origem, inicio,
+                    Duration.ofNanos(duracaoNanos).toMillis(), blocos, total, erro == null, erro);
+            registrar(execucao);
+            log.info("Rotina de inadimplência ({}): {} matrícula(s) marcada(s) como ATRASADO em {} bloco(s), {} ms.",
+                    origem, total, blocos, execucao.getDuracaoMs());
+            return Optional.of(execucao);
+        } finally {
+            emExecucao.unlock();
+        }
+    }
+
+    // Um bloco: bloqueia as matrículas, marca todas com um único UPDATE e move os totais de cada curso
+    private int marcarBloco(LocalDate hoje) {
+        List<MatriculaRepository.MatriculaVencida> vencidas =
+                matriculaRepository.findVencidasParaAtraso(hoje, Limit.of(tamanhoBloco));
+        if (vencidas.isEmpty()) {
+            return 0;
+        }
+        matriculaRepository.marcarAtrasadas(vencidas.stream().map(MatriculaRepository.MatriculaVencida::getId).toList());
+
+        Map<Long, Long> quantidadePorCurso = new TreeMap<>(); // Ordenados por curso, como nas demais atualizações
+        Map<Long, BigDecimal> valorPorCurso = new TreeMap<>();
+        for (MatriculaRepository.MatriculaVencida vencida : vencidas) {
+            quantidadePorCurso.merge(vencida.getCursoId(), 1L, Long::sum);
+            valorPorCurso.merge(vencida.getCursoId(), vencida.getValorCobrado(), BigDecimal::add);
+        }
+        quantidadePorCurso.forEach((cursoId, quantidade) -> resumoFinanceiroService.transferir(cursoId,
+                StatusPagamento.PENDENTE, StatusPagamento.ATRASADO, quantidade, valorPorCurso.get(cursoId)));
+        return vencidas.size();
+    }
+
+    @Override
+    public synchronized List<ExecucaoInadimplenciaDTO> listarExecucoes() {
+        return List.copyOf(historico);
+    }
+
+    private synchronized void registrar(ExecucaoInadimplenciaDTO execucao) {
+        historico.addFirst(execucao);
+        if (historico.size() > TAMANHO_HISTORICO) {
+            historico.removeLast();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.neontech.sistema_escolar.service;
+
+import com.neontech.sistema_escolar.model.Pessoa;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Leitor do arquivo CSV de importação de pessoas.
+ * <p>
+ * A primeira linha é o cabeçalho, com as colunas {@code nome}, {@code cpf}, {@code dataNascimento},
+ * {@code email} e {@code telefone} em qualquer ordem (apenas {@code nome} é obrigatória).
+ * O separador pode ser vírgula ou ponto e vírgula (padrão do Excel em português), detectado pelo cabeçalho.
+ * Datas são aceitas nos formatos {@code aaaa-mm-dd} e {@code dd/mm/aaaa}.
+ */
+final class LeitorCsvPessoas {
+
+    private static final DateTimeFormatter DATA_BRASILEIRA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private LeitorCsvPessoas() {
+    }
+
+    /**
+     * Lê todas as linhas do CSV.
+     *
+     * @param leitor O conteúdo do arquivo.
+     * @return As pessoas lidas, na ordem das linhas (sem o cabeçalho e sem linhas em branco).
+     * @throws IllegalArgumentException se o cabeçalho ou alguma linha estiver malformado.
+     */
+    static List<Pessoa> ler(Reader leitor) {
+        try {
+            BufferedReader linhas = new BufferedReader(leitor);
+            String cabecalho = linhas.readLine();
+            if (cabecalho == null || cabecalho.isBlank()) {
+                throw new IllegalArgumentException("Arquivo CSV vazio.");
+            }
+            cabecalho = cabecalho.replace("\uFEFF", ""); // BOM gravado por algumas planilhas
+            char separador = cabecalho.indexOf(';') >= 0 ? ';' : ',';
+
+            Map<String, Integer> colunas = new HashMap<>();
+            List<String> nomesColunas = separar(cabecalho, separador);
+            for (int i = 0; i < nomesColunas.size(); i++) {
+                colunas.put(nomesColunas.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!colunas.containsKey("nome")) {
+                throw new IllegalArgumentException("O cabeçalho do CSV precisa da coluna 'nome'.");
+            }
+
+            List<Pessoa> pessoas = new ArrayList<>();
+            String linha;
+            int numeroLinha = 1;
+            while ((linha = linhas.readLine()) != null) {
+                numeroLinha++;
+                if (linha.isBlank()) {
+                    continue;
+                }
+                List<String> valores = separar(linha, separador);
+                Pessoa pessoa = new Pessoa();
+                pessoa.setNome(valor(valores, colunas, "nome"));
+                pessoa.setCpf(valor(valores, colunas, "cpf"));
+                pessoa.setDataNascimento(data(valor(valores, colunas, "datanascimento"), numeroLinha));
+                pessoa.setEmail(valor(valores, colunas, "email"));
+                pessoa.setTelefone(valor(valores, colunas, "telefone"));
+                pessoas.add(pessoa);
+            }
+            return pessoas;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String valor(List<String> valores, Map<String, Integer> colunas, String coluna) {
+        Integer posicao = colunas.get(coluna);
+        if (posicao == null || posicao >= valores.size()) {
+            return null;
+        }
+        String valor = valores.get(posicao).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private static LocalDate data(String valor, int numeroLinha) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return valor.contains("/") ? LocalDate.parse(valor, DATA_BRASILEIRA) : LocalDate.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Data inválida na linha " + numeroLinha + ": " + valor);
+        }
+    }
+
+    // Separa os campos de uma linha, respeitando valores entre aspas (com aspas internas duplicadas)
+    private static List<String> separar(String linha, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        campos.add(atual.toString());
+        return campos;
+    }
+}
@@ -0,0 +1,29 @@
+package com.neontech.sistema_escolar.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Utilitário para dividir coleções grandes em blocos, usado pelas importações em lote.
+ */
+final class Lotes {
+
+    // Quantidade máxima de valores por consulta com IN (o PostgreSQL limita os parâmetros por comando)
+    static final int VALORES_POR_CONSULTA = 1000;
+
+    private Lotes() {
+    }
+
+    /**
+     * Divide os valores em blocos de até {@link #VALORES_POR_CONSULTA} elementos, na ordem original.
+     */
+    static <T> List<List<T>> emBlocos(Collection<T> valores) {
+        List<T> todos = new ArrayList<>(valores);
+        List<List<T>> blocos = new ArrayList<>();
+        for (int inicio = 0; inicio < todos.size(); inicio += VALORES_POR_CONSULTA) {
+            blocos.add(todos.subList(inicio, Math.min(inicio + VALORES_POR_CONSULTA, todos.size())));
+        }
+        return blocos;
+    }
+}
@@ -1,13 +1,20 @@
 package com.neontech.sistema_escolar.service;
 
 import com.neontech.sistema_escolar.dto.MatriculaDTO;
+import com.neontech.sistema_escolar.dto.NovaMatriculaDTO;
+import com.neontech.sistema_escolar.dto.PaginaDTO;
+import com.neontech.sistema_escolar.dto.ResultadoLoteDTO;
 import com.neontech.sistema_escolar.model.Matricula;
 import com.neontech.sistema_escolar.model.StatusPagamento;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Interface para o serviço de gestão de matrículas.
@@ -24,9 +31,24 @@ public interface MatriculaService {
      * @param dataVencimento A data de vencimento para o pagamento desta matrícula.
      * @return A entidade Matricula recém-criada e salva.
      * @throws RuntimeException se o aluno ou curso não for encontrado, ou se o curso estiver inativo, ou outra regra de negócio for violada.
+     * @throws DuplicateKeyException se o aluno já estiver matriculado no curso (garantido pela restrição única do banco,
+     *         inclusive entre requisições concorrentes).
+     * @throws DataIntegrityViolationException se outra restrição do banco for violada (ex.: valor cobrado ausente).
      */
     Matricula realizarMatricula(Long alunoId, Long cursoId, BigDecimal valorCobrado, LocalDate dataVencimento);
 
+    /**
+     * Realiza várias matrículas de uma vez (importação de planilhas no início do semestre).
+     * Alunos, cursos e matrículas já existentes são validados com poucas consultas em conjunto
+     * (IN), e as novas matrículas são inseridas em lotes JDBC.
+     * Linhas inválidas são rejeitadas individualmente, sem impedir as demais.
+     *
+     * @param matriculas Os dados de cada matrícula a ser realizada.
+     * @return O resultado de cada linha, na mesma ordem da entrada.
+     * @throws DataIntegrityViolationException se outra requisição matricular um dos pares durante a importação (nada é gravado).
+     */
+    List<ResultadoLoteDTO> realizarMatriculasEmLote(List<NovaMatriculaDTO> matriculas);
+
     /**
      * Busca uma matrícula pelo seu ID.
      *
@@ -44,14 +66,42 @@ public interface MatriculaService {
     List<MatriculaDTO> listarMatriculasPorAluno(Long alunoId);
 
     /**
-     * Atualiza o status de pagamento de uma matrícula.
+     * Lista uma página de matrículas usando paginação por cursor (keyset) sobre o ID.
+     *
+     * @param cursor O cursor devolvido pela página anterior, ou nulo para a primeira página.
+     * @param tamanho A quantidade de registros desejada (limitada ao máximo configurado).
+     * @return A página com as matrículas e o cursor da próxima página.
+     * @throws IllegalArgumentException se o cursor for inválido.
+     */
+    PaginaDTO<MatriculaDTO> listarPagina(String cursor, Integer tamanho);
+
+    /**
+     * Percorre as matrículas para exportação, entregando uma a uma ao consumidor,
+     * sem carregar o resultado inteiro na memória. Filtros nulos são ignorados.
+     *
+     * @param status Filtra pelo status de pagamento (opcional).
+     * @param vencimentoDe Data de vencimento mínima, inclusiva (opcional).
+     * @param vencimentoAte Data de vencimento máxima, inclusiva (opcional).
+     * @param consumidor Função chamada para cada matrícula lida.
+     */
+    void exportar(StatusPagamento status, LocalDate vencimentoDe, LocalDate vencimentoAte,
+                  Consumer<MatriculaDTO> consumidor);
+
+    /**
+     * Atualiza o status de pagamento de uma matrícula, respeitando as transições permitidas (ver {@link StatusPagamento}).
+     * A troca é um UPDATE condicional ao status e à versão lidos; se outra operação alterar a matrícula no meio,
+     * a leitura é refeita e a transição avaliada de novo. Pedir o status que a matrícula já tem não altera nada.
      *
      * @param id ID da matrícula.
      * @param novoStatus O novo status de pagamento.
-     * @return A matrícula atualizada.
+     * @param versaoEsperada Versão que o cliente leu (If-Match), ou nulo para partir da versão atual.
+     * @return A matrícula após a atualização.
      * @throws RuntimeException se a matrícula não for encontrada.
+     * @throws IllegalStateException se a transição de status não for permitida.
+     * @throws OptimisticLockingFailureException se a matrícula não estiver na versão esperada,
+     *         ou se for alterada por outras operações em todas as tentativas.
      */
-    Matricula atualizarStatusPagamento(Long id, StatusPagamento novoStatus);
+    MatriculaDTO atualizarStatusPagamento(Long id, StatusPagamento novoStatus, Long versaoEsperada);
 
     /**
      * Cancela uma matrícula.
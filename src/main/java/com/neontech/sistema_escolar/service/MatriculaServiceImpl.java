@@ -1,8 +1,9 @@
 package com.neontech.sistema_escolar.service;
 
-import com.neontech.sistema_escolar.dto.CursoDTO;
 import com.neontech.sistema_escolar.dto.MatriculaDTO;
-import com.neontech.sistema_escolar.dto.PessoaDTO;
+import com.neontech.sistema_escolar.dto.NovaMatriculaDTO;
+import com.neontech.sistema_escolar.dto.PaginaDTO;
+import com.neontech.sistema_escolar.dto.ResultadoLoteDTO;
 import com.neontech.sistema_escolar.model.Curso;
 import com.neontech.sistema_escolar.model.Matricula;
 import com.neontech.sistema_escolar.model.Pessoa;
@@ -10,32 +11,78 @@ import com.neontech.sistema_escolar.model.StatusPagamento;
 import com.neontech.sistema_escolar.repository.CursoRepository;
 import com.neontech.sistema_escolar.repository.MatriculaRepository;
 import com.neontech.sistema_escolar.repository.PessoaRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementação do serviço de gestão de matrículas.
+ * Buscas, listagens e a exportação vão à réplica em transações somente leitura; matrículas, trocas de status e
+ * cancelamentos ficam no banco principal.
  */
 @Service // Marca esta classe como um componente de serviço gerenciado pelo Spring
+@Transactional(readOnly = true)
+@Timed("sistema_escolar.servico")
 public class MatriculaServiceImpl implements MatriculaService {
 
+    private static final String MENSAGEM_MATRICULA_DUPLICADA = "Aluno já matriculado neste curso.";
+
+    // Restrição única (pessoa_id, curso_id) de matriculas, criada em V2
+    private static final String RESTRICAO_MATRICULA_UNICA = "uk_matriculas_pessoa_curso";
+
+    // Releituras permitidas quando outra operação altera a matrícula entre a leitura e o UPDATE condicional
+    private static final int TENTATIVAS_TROCA_STATUS = 3;
+
     private final PessoaRepository pessoaRepository;
     private final CursoRepository cursoRepository;
     private final MatriculaRepository matriculaRepository;
+    private final CursoService cursoService;
+    private final ResumoFinanceiroService resumoFinanceiroService;
+    private final CursorPaginacao cursorPaginacao;
+    private final EntityManager entityManager;
+    private final int tamanhoLoteJdbc;
 
     // Injeção de dependência via construtor (prática recomendada)
     public MatriculaServiceImpl(PessoaRepository pessoaRepository,
                                 CursoRepository cursoRepository,
-                                MatriculaRepository matriculaRepository) {
+                                MatriculaRepository matriculaRepository,
+                                CursoService cursoService,
+                                ResumoFinanceiroService resumoFinanceiroService,
+                                CursorPaginacao cursorPaginacao,
+                                EntityManager entityManager,
+                                @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int tamanhoLoteJdbc) {
         this.pessoaRepository = pessoaRepository;
         this.cursoRepository = cursoRepository;
         this.matriculaRepository = matriculaRepository;
+        this.cursoService = cursoService;
+        this.resumoFinanceiroService = resumoFinanceiroService;
+        this.cursorPaginacao = cursorPaginacao;
+        this.entityManager = entityManager;
+        this.tamanhoLoteJdbc = tamanhoLoteJdbc;
     }
 
     @Override
@@ -45,8 +92,8 @@ public class MatriculaServiceImpl implements MatriculaService {
         Pessoa aluno = pessoaRepository.findById(alunoId)
                 .orElseThrow(() -> new RuntimeException("Aluno não encontrado com ID: " + alunoId)); // Lança exceção se não encontrar
 
-        // 2. Buscar o curso pelo ID
-        Curso curso = cursoRepository.findById(cursoId)
+        // 2. Buscar o curso pelo ID (pelo serviço, que mantém o catálogo em cache)
+        Curso curso = cursoService.buscarPorId(cursoId)
                 .orElseThrow(() -> new RuntimeException("Curso não encontrado com ID: " + cursoId));
 
         // 3. Verificar se o curso está ativo
@@ -55,12 +102,7 @@ public class MatriculaServiceImpl implements MatriculaService {
         }
 
         // --- Outras validações poderiam ser adicionadas aqui ---
-        // 4. Verificar se o aluno já está matriculado neste curso
-        if (matriculaRepository.existsByAlunoIdAndCursoId(alunoId, cursoId)) {
-            throw new RuntimeException("Aluno já matriculado neste curso.");
-        }
-
-        // 5. Criar a nova instância de Matricula
+        // 4. Criar a nova instância de Matricula
         Matricula novaMatricula = new Matricula();
         novaMatricula.setAluno(aluno);
         novaMatricula.setCurso(curso);
@@ -69,68 +111,208 @@ public class MatriculaServiceImpl implements MatriculaService {
         novaMatricula.setStatusPagamento(StatusPagamento.PENDENTE); // Status inicial
         novaMatricula.setDataVencimento(dataVencimento);
 
-        // 6. Salvar a matrícula no banco de dados
-        return matriculaRepository.save(novaMatricula);
+        // 5. Salvar a matrícula no banco de dados.
+        // A duplicidade é barrada pela restrição única (pessoa_id, curso_id), sem consulta prévia:
+        // uma verificação antes do INSERT custaria uma ida ao banco e não impediria duas requisições simultâneas.
+        // O flush imediato faz a violação aparecer aqui, e não só no commit.
+        Matricula matriculaSalva;
+        try {
+            matriculaSalva = matriculaRepository.saveAndFlush(novaMatricula);
+        } catch (DataIntegrityViolationException e) {
+            if (violouMatriculaUnica(e)) {
+                throw new DuplicateKeyException(MENSAGEM_MATRICULA_DUPLICADA, e);
+            }
+            throw e; // Outra restrição (ex.: coluna obrigatória): não é matrícula repetida
+        }
+
+        // 6. Somar a matrícula aos totais do curso, na mesma transação
+        resumoFinanceiroService.ajustar(cursoId, StatusPagamento.PENDENTE, 1, valorCobrado);
+        return matriculaSalva;
+    }
+
+    @Override
+    @Transactional
+    public List<ResultadoLoteDTO> realizarMatriculasEmLote(List<NovaMatriculaDTO> matriculas) {
+        // 1. Validar alunos, cursos e matrículas existentes com consultas em conjunto, não linha a linha
+        Set<Long> alunoIds = matriculas.stream().map(NovaMatriculaDTO::getAlunoId)
+                .filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<Long> cursoIds = matriculas.stream().map(NovaMatriculaDTO::getCursoId)
+                .filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Set<Long> alunosExistentes = new HashSet<>();
+        for (List<Long> bloco : Lotes.emBlocos(alunoIds)) {
+            alunosExistentes.addAll(pessoaRepository.findIdsExistentes(bloco));
+        }
+        Map<Long, Curso> cursos = new HashMap<>();
+        for (List<Long> bloco : Lotes.emBlocos(cursoIds)) {
+            cursos.putAll(cursoRepository.findAllById(bloco).stream()
+                    .collect(Collectors.toMap(Curso::getId, Function.identity())));
+        }
+        Set<String> paresMatriculados = new HashSet<>();
+        if (!cursos.isEmpty()) {
+            for (List<Long> bloco : Lotes.emBlocos(alunosExistentes)) {
+                matriculaRepository.findParesExistentes(bloco, cursos.keySet())
+                        .forEach(par -> paresMatriculados.add(chave(par.getAlunoId(), par.getCursoId())));
+            }
+        }
+
+        // 2. Validar cada linha em memória e inserir as válidas em lotes JDBC
+        List<ResultadoLoteDTO> resultados = new ArrayList<>(matriculas.size());
+        Map<Long, Long> quantidadePorCurso = new TreeMap<>(); // Ordenados por curso para ajustar os totais
+        Map<Long, BigDecimal> valorPorCurso = new TreeMap<>();
+        int pendentesNoLote = 0;
+        for (int indice = 0; indice < matriculas.size(); indice++) {
+            NovaMatriculaDTO dados = matriculas.get(indice);
+            String erro = validarLinha(dados, alunosExistentes, cursos);
+            if (erro == null && !paresMatriculados.add(chave(dados.getAlunoId(), dados.getCursoId()))) {
+                // Já existia no banco ou aparece repetida no próprio lote
+                erro = MENSAGEM_MATRICULA_DUPLICADA;
+            }
+            if (erro != null) {
+                resultados.add(ResultadoLoteDTO.falha(indice, erro));
+                continue;
+            }
+
+            Matricula novaMatricula = new Matricula();
+            // Referências sem SELECT: a existência já foi validada acima
+            novaMatricula.setAluno(entityManager.getReference(Pessoa.class, dados.getAlunoId()));
+            novaMatricula.setCurso(entityManager.getReference(Curso.class, dados.getCursoId()));
+            novaMatricula.setDataMatricula(LocalDate.now());
+            novaMatricula.setValorCobrado(dados.getValorCobrado());
+            novaMatricula.setStatusPagamento(StatusPagamento.PENDENTE);
+            novaMatricula.setDataVencimento(dados.getDataVencimento());
+            entityManager.persist(novaMatricula); // O ID vem da sequência já reservada em memória
+            resultados.add(ResultadoLoteDTO.sucesso(indice, novaMatricula.getId()));
+            quantidadePorCurso.merge(dados.getCursoId(), 1L, Long::sum);
+            valorPorCurso.merge(dados.getCursoId(), dados.getValorCobrado(), BigDecimal::add);
+
+            // A cada lote completo, envia os INSERTs e libera o contexto de persistência.
+            // O flush pelo repositório traduz a violação da restrição única por uma matrícula concorrente
+            // em DataIntegrityViolationException, que o controller responde com 409
+            if (++pendentesNoLote == tamanhoLoteJdbc) {
+                matriculaRepository.flush();
+                entityManager.clear();
+                pendentesNoLote = 0;
+            }
+        }
+        matriculaRepository.flush();
+        entityManager.clear();
+
+        // 3. Um ajuste por curso nos totais acumulados, na mesma transação
+        quantidadePorCurso.forEach((cursoId, quantidade) ->
+                resumoFinanceiroService.ajustar(cursoId, StatusPagamento.PENDENTE, quantidade, valorPorCurso.get(cursoId)));
+        return resultados;
     }
 
     @Override
     public Optional<MatriculaDTO> buscarPorId(Long id) {
-        return matriculaRepository.findById(id)
-                .map(this::convertToDTO);
+        // Consulta com projeção em DTO: aluno e curso vêm no mesmo SELECT (sem N+1)
+        return matriculaRepository.findDTOById(id);
     }
 
     @Override
     public List<MatriculaDTO> listarMatriculasPorAluno(Long alunoId) {
-        return matriculaRepository.findByAlunoId(alunoId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // Uma única consulta, independentemente da quantidade de matrículas do aluno
+        return matriculaRepository.findDTOByAlunoId(alunoId);
+    }
+
+    @Override
+    public PaginaDTO<MatriculaDTO> listarPagina(String cursor, Integer tamanho) {
+        long ultimoId = cursorPaginacao.decodificar(cursor);
+        int tamanhoPagina = cursorPaginacao.resolverTamanho(tamanho);
+        List<MatriculaDTO> resultado = matriculaRepository.findDTOByIdGreaterThan(
+                ultimoId, cursorPaginacao.limiteConsulta(tamanhoPagina));
+        return cursorPaginacao.montarPagina(resultado, tamanhoPagina, MatriculaDTO::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true) // O Stream precisa da transação aberta enquanto é consumido
+    public void exportar(StatusPagamento status, LocalDate vencimentoDe, LocalDate vencimentoAte,
+                         Consumer<MatriculaDTO> consumidor) {
+        try (Stream<MatriculaDTO> matriculas =
+                     matriculaRepository.findDTOParaExportacao(status, vencimentoDe, vencimentoAte)) {
+            matriculas.forEach(consumidor);
+        }
     }
 
     @Override
     @Transactional
-    public Matricula atualizarStatusPagamento(Long id, StatusPagamento novoStatus) {
-        Matricula matricula = matriculaRepository.findById(id)
+    public MatriculaDTO atualizarStatusPagamento(Long id, StatusPagamento novoStatus, Long versaoEsperada) {
+        for (int tentativa = 1; tentativa <= TENTATIVAS_TROCA_STATUS; tentativa++) {
+            MatriculaRepository.SituacaoMatricula situacao = matriculaRepository.findSituacaoById(id)
+                    .orElseThrow(() -> new RuntimeException("Matrícula não encontrada com ID: " + id));
+            if (versaoEsperada != null && !versaoEsperada.equals(situacao.getVersao())) {
+                throw new OptimisticLockingFailureException(
+                        "A matrícula " + id + " foi alterada (versão atual " + situacao.getVersao() + ").");
+            }
+            StatusPagamento statusAnterior = situacao.getStatusPagamento();
+            if (statusAnterior == novoStatus) {
+                return buscarAtualizada(id); // Ex.: confirmação de pagamento repetida pelo gateway
+            }
+            if (!statusAnterior.podeMudarPara(novoStatus)) {
+                throw new IllegalStateException(
+                        "Não é permitido mudar o status de pagamento de " + statusAnterior + " para " + novoStatus + ".");
+            }
+            // Só grava se ninguém alterou a matrícula desde a leitura; assim os totais do curso
+            // saem do status que a matrícula realmente tinha
+            if (matriculaRepository.atualizarStatusSeInalterada(id, statusAnterior, situacao.getVersao(), novoStatus) == 1) {
+                resumoFinanceiroService.transferir(situacao.getCursoId(), statusAnterior, novoStatus,
+                        1, situacao.getValorCobrado());
+                return buscarAtualizada(id);
+            }
+            if (versaoEsperada != null) {
+                throw new OptimisticLockingFailureException("A matrícula " + id + " foi alterada durante a atualização.");
+            }
+        }
+        throw new OptimisticLockingFailureException(
+                "A matrícula " + id + " foi alterada por outras operações. Tente novamente.");
+    }
+
+    private MatriculaDTO buscarAtualizada(Long id) {
+        return matriculaRepository.findDTOById(id)
                 .orElseThrow(() -> new RuntimeException("Matrícula não encontrada com ID: " + id));
-        matricula.setStatusPagamento(novoStatus);
-        return matriculaRepository.save(matricula);
     }
 
     @Override
     @Transactional
     public void cancelarMatricula(Long id) {
-        if (!matriculaRepository.existsById(id)) {
-            throw new RuntimeException("Matrícula não encontrada com ID: " + id);
+        Matricula matricula = matriculaRepository.findByIdParaAtualizacao(id)
+                .orElseThrow(() -> new RuntimeException("Matrícula não encontrada com ID: " + id));
+        matriculaRepository.delete(matricula);
+        resumoFinanceiroService.ajustar(matricula.getCurso().getId(), matricula.getStatusPagamento(),
+                -1, matricula.getValorCobrado().negate());
+    }
+
+    // Mesmas regras de realizarMatricula, verificadas contra os dados carregados em conjunto
+    private String validarLinha(NovaMatriculaDTO dados, Set<Long> alunosExistentes, Map<Long, Curso> cursos) {
+        if (dados.getAlunoId() == null || dados.getCursoId() == null || dados.getValorCobrado() == null) {
+            return "alunoId, cursoId e valorCobrado são obrigatórios.";
+        }
+        if (!alunosExistentes.contains(dados.getAlunoId())) {
+            return "Aluno não encontrado com ID: " + dados.getAlunoId();
+        }
+        Curso curso = cursos.get(dados.getCursoId());
+        if (curso == null) {
+            return "Curso não encontrado com ID: " + dados.getCursoId();
+        }
+        if (!curso.isAtivo()) {
+            return "Não é possível matricular em um curso inativo: " + curso.getNome();
+        }
+        return null;
+    }
+
+    // O nome vem da exceção do Hibernate; no H2 ele aparece como o do índice, com um sufixo
+    private static boolean violouMatriculaUnica(DataIntegrityViolationException e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacao && violacao.getConstraintName() != null) {
+                return violacao.getConstraintName().toLowerCase(Locale.ROOT).contains(RESTRICAO_MATRICULA_UNICA);
+            }
         }
-        matriculaRepository.deleteById(id);
+        String mensagem = e.getMostSpecificCause().getMessage();
+        return mensagem != null && mensagem.toLowerCase(Locale.ROOT).contains(RESTRICAO_MATRICULA_UNICA);
     }
 
-    private MatriculaDTO convertToDTO(Matricula matricula) {
-        PessoaDTO alunoDTO = new PessoaDTO(
-                matricula.getAluno().getId(),
-                matricula.getAluno().getNome(),
-                matricula.getAluno().getCpf(),
-                matricula.getAluno().getDataNascimento(),
-                matricula.getAluno().getEmail(),
-                matricula.getAluno().getTelefone()
-        );
-
-        CursoDTO cursoDTO = new CursoDTO(
-                matricula.getCurso().getId(),
-                matricula.getCurso().getNome(),
-                matricula.getCurso().getDescricao(),
-                matricula.getCurso().getValor(),
-                matricula.getCurso().getCargaHoraria(),
-                matricula.getCurso().isAtivo()
-        );
-
-        return new MatriculaDTO(
-                matricula.getId(),
-                alunoDTO,
-                cursoDTO,
-                matricula.getDataMatricula(),
-                matricula.getValorCobrado(),
-                matricula.getStatusPagamento(),
-                matricula.getDataVencimento()
-        );
+    private static String chave(Long alunoId, Long cursoId) {
+        return alunoId + ":" + cursoId;
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,13 @@
 package com.neontech.sistema_escolar.service;
 
+import com.neontech.sistema_escolar.dto.PaginaDTO;
+import com.neontech.sistema_escolar.dto.ResultadoLoteDTO;
 import com.neontech.sistema_escolar.model.Pessoa;
 
+import java.io.Reader;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Interface para o serviço de gestão de pessoas.
@@ -20,6 +24,28 @@ public interface PessoaService {
      */
     Pessoa salvar(Pessoa pessoa);
 
+    /**
+     * Importa várias pessoas de uma vez (cadastro de uma escola inteira).
+     * Os CPFs são verificados em conjunto, com poucas consultas, e as novas pessoas
+     * são inseridas em lotes JDBC. Linhas com CPF já cadastrado (ou repetido no próprio lote)
+     * são rejeitadas individualmente, sem impedir as demais.
+     *
+     * @param pessoas As pessoas a serem cadastradas.
+     * @return O resultado de cada linha, na mesma ordem da entrada.
+     * @throws org.springframework.dao.DataIntegrityViolationException se outro cadastro concorrente
+     *         gravar o mesmo CPF durante a importação (nada é gravado e a importação pode ser reenviada).
+     */
+    List<ResultadoLoteDTO> importar(List<Pessoa> pessoas);
+
+    /**
+     * Importa pessoas a partir de um arquivo CSV, com as mesmas regras de {@link #importar(List)}.
+     *
+     * @param csv O conteúdo do arquivo, com cabeçalho (nome, cpf, dataNascimento, email, telefone).
+     * @return O resultado de cada linha de dados, na ordem do arquivo.
+     * @throws IllegalArgumentException se o arquivo estiver malformado.
+     */
+    List<ResultadoLoteDTO> importarCsv(Reader csv);
+
     /**
      * Busca uma pessoa pelo seu ID.
      *
@@ -43,6 +69,38 @@ public interface PessoaService {
      */
     List<Pessoa> listarTodos();
 
+    /**
+     * Lista uma página de pessoas usando paginação por cursor (keyset) sobre o ID.
+     *
+     * @param cursor O cursor devolvido pela página anterior, ou nulo para a primeira página.
+     * @param tamanho A quantidade de registros desejada (limitada ao máximo configurado).
+     * @return A página com as pessoas e o cursor da próxima página.
+     * @throws IllegalArgumentException se o cursor for inválido.
+     */
+    PaginaDTO<Pessoa> listarPagina(String cursor, Integer tamanho);
+
+    /**
+     * Busca pessoas por um trecho digitado (caixa de busca da secretaria), com resultados paginados.
+     * O tipo do trecho define o campo pesquisado:
+     * com "@" é um e-mail; só com dígitos (e pontuação de CPF) é um trecho do CPF; caso contrário, é um nome.
+     * Nome e e-mail são comparados por semelhança, sem diferenciar maiúsculas nem acentos, e vêm
+     * das pessoas mais parecidas para as menos parecidas; trechos de CPF vêm em ordem de CPF.
+     *
+     * @param termo O trecho digitado, com ao menos 3 caracteres.
+     * @param cursor O cursor devolvido pela página anterior, ou nulo para a primeira página.
+     * @param tamanho A quantidade de registros desejada (limitada ao máximo configurado).
+     * @return A página com as pessoas encontradas e o cursor da próxima página.
+     * @throws IllegalArgumentException se o termo for curto demais ou o cursor for inválido.
+     */
+    PaginaDTO<Pessoa> buscar(String termo, String cursor, Integer tamanho);
+
+    /**
+     * Percorre todas as pessoas, lendo do banco em blocos, sem carregar a tabela inteira na memória.
+     *
+     * @param consumidor Função chamada para cada registro lido.
+     */
+    void percorrerTodos(Consumer<Pessoa> consumidor);
+
     /**
      * Exclui uma pessoa pelo seu ID.
      *
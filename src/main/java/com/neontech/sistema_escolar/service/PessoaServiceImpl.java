@@ -1,24 +1,54 @@
 package com.neontech.sistema_escolar.service;
 
+import com.neontech.sistema_escolar.dto.PaginaDTO;
+import com.neontech.sistema_escolar.dto.ResultadoLoteDTO;
 import com.neontech.sistema_escolar.model.Pessoa;
 import com.neontech.sistema_escolar.repository.PessoaRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementação do serviço de gestão de pessoas.
+ * As consultas rodam em transações somente leitura (pool de leitura, sem flush e sem cópias das entidades
+ * para dirty checking); cadastros, importações e exclusões declaram a própria transação de escrita.
+ * A busca por CPF também usa o banco principal, por alimentar o cache de consultas do Hibernate.
  */
 @Service
+@Transactional(readOnly = true)
+@Timed("sistema_escolar.servico")
 public class PessoaServiceImpl implements PessoaService {
 
+    private static final int TAMANHO_MINIMO_BUSCA = 3;
+
     private final PessoaRepository pessoaRepository;
+    private final CursorPaginacao cursorPaginacao;
+    private final EntityManager entityManager;
+    private final int tamanhoLoteJdbc;
 
     // Injeção de dependência via construtor
-    public PessoaServiceImpl(PessoaRepository pessoaRepository) {
+    public PessoaServiceImpl(PessoaRepository pessoaRepository,
+                             CursorPaginacao cursorPaginacao,
+                             EntityManager entityManager,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int tamanhoLoteJdbc) {
         this.pessoaRepository = pessoaRepository;
+        this.cursorPaginacao = cursorPaginacao;
+        this.entityManager = entityManager;
+        this.tamanhoLoteJdbc = tamanhoLoteJdbc;
     }
 
     @Override
@@ -44,12 +74,68 @@ public class PessoaServiceImpl implements PessoaService {
         return pessoaRepository.save(pessoa);
     }
 
+    @Override
+    @Transactional
+    public List<ResultadoLoteDTO> importar(List<Pessoa> pessoas) {
+        // Uma importação grande não deve ocupar (nem expulsar) o cache de segundo nível
+        entityManager.setProperty("jakarta.persistence.cache.storeMode", CacheStoreMode.BYPASS);
+
+        // 1. Verificar todos os CPFs já cadastrados com consultas em conjunto, não um findByCpf por pessoa
+        Set<String> cpfs = pessoas.stream().map(Pessoa::getCpf)
+                .filter(Objects::nonNull).filter(cpf -> !cpf.isEmpty())
+                .collect(Collectors.toSet());
+        Set<String> cpfsUsados = new HashSet<>();
+        for (List<String> bloco : Lotes.emBlocos(cpfs)) {
+            cpfsUsados.addAll(pessoaRepository.findCpfsExistentes(bloco));
+        }
+
+        // 2. Validar cada linha em memória e inserir as válidas em lotes JDBC.
+        // A restrição única do CPF no banco continua garantindo a consistência contra cadastros concorrentes.
+        List<ResultadoLoteDTO> resultados = new ArrayList<>(pessoas.size());
+        int pendentesNoLote = 0;
+        for (int indice = 0; indice < pessoas.size(); indice++) {
+            Pessoa pessoa = pessoas.get(indice);
+            if (pessoa.getNome() == null || pessoa.getNome().isBlank()) {
+                resultados.add(ResultadoLoteDTO.falha(indice, "O nome é obrigatório."));
+                continue;
+            }
+            if (pessoa.getCpf() != null && !pessoa.getCpf().isEmpty() && !cpfsUsados.add(pessoa.getCpf())) {
+                // Já cadastrado no banco ou repetido no próprio lote
+                resultados.add(ResultadoLoteDTO.falha(indice, "Já existe uma pessoa cadastrada com o CPF: " + pessoa.getCpf()));
+                continue;
+            }
+
+            pessoa.setId(null); // A importação só cadastra pessoas novas
+            entityManager.persist(pessoa); // O ID vem da sequência já reservada em memória
+            resultados.add(ResultadoLoteDTO.sucesso(indice, pessoa.getId()));
+
+            // A cada lote completo, envia os INSERTs e libera o contexto de persistência.
+            // O flush passa pelo repositório para um CPF gravado por um cadastro concorrente chegar
+            // como DataIntegrityViolationException (o EntityManager lançaria a exceção do Hibernate)
+            if (++pendentesNoLote == tamanhoLoteJdbc) {
+                pessoaRepository.flush();
+                entityManager.clear();
+                pendentesNoLote = 0;
+            }
+        }
+        pessoaRepository.flush();
+        entityManager.clear();
+        return resultados;
+    }
+
+    @Override
+    @Transactional
+    public List<ResultadoLoteDTO> importarCsv(Reader csv) {
+        return importar(LeitorCsvPessoas.ler(csv));
+    }
+
     @Override
     public Optional<Pessoa> buscarPorId(Long id) {
         return pessoaRepository.findById(id);
     }
 
     @Override
+    @Transactional // Carga do cache de consultas sempre do banco principal
     public Optional<Pessoa> buscarPorCpf(String cpf) {
         return pessoaRepository.findByCpf(cpf);
     }
@@ -59,6 +145,60 @@ public class PessoaServiceImpl implements PessoaService {
         return pessoaRepository.findAll();
     }
 
+    @Override
+    public PaginaDTO<Pessoa> listarPagina(String cursor, Integer tamanho) {
+        long ultimoId = cursorPaginacao.decodificar(cursor);
+        int tamanhoPagina = cursorPaginacao.resolverTamanho(tamanho);
+        List<Pessoa> resultado = pessoaRepository.findByIdGreaterThanOrderByIdAsc(
+                ultimoId, cursorPaginacao.limiteConsulta(tamanhoPagina));
+        return cursorPaginacao.montarPagina(resultado, tamanhoPagina, Pessoa::getId);
+    }
+
+    @Override
+    public PaginaDTO<Pessoa> buscar(String termo, String cursor, Integer tamanho) {
+        String texto = termo == null ? "" : termo.strip();
+        if (texto.length() < TAMANHO_MINIMO_BUSCA) {
+            // Menos de 3 caracteres não formam trigramas e casariam com boa parte da tabela
+            throw new IllegalArgumentException("Informe ao menos " + TAMANHO_MINIMO_BUSCA + " caracteres para a busca.");
+        }
+        // O ranking não tem uma chave crescente como o ID, então aqui o cursor guarda quantos registros já foram entregues
+        long entregues = cursorPaginacao.decodificar(cursor);
+        if (entregues > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cursor de paginação inválido: " + cursor);
+        }
+        int deslocamento = (int) entregues;
+        int tamanhoPagina = cursorPaginacao.resolverTamanho(tamanho);
+        int limite = tamanhoPagina + 1; // Um a mais, só para saber se existe uma próxima página
+
+        List<Pessoa> resultado;
+        String digitos = texto.replaceAll("[.\\-\\s]", "");
+        if (texto.contains("@")) {
+            resultado = pessoaRepository.buscarPorEmail(texto, limite, deslocamento);
+        } else if (digitos.length() >= TAMANHO_MINIMO_BUSCA && digitos.chars().allMatch(Character::isDigit)) {
+            resultado = pessoaRepository.buscarPorTrechoDoCpf(digitos, limite, deslocamento);
+        } else {
+            resultado = pessoaRepository.buscarPorNome(texto, limite, deslocamento);
+        }
+
+        if (resultado.size() <= tamanhoPagina) {
+            return new PaginaDTO<>(resultado, null);
+        }
+        return new PaginaDTO<>(List.copyOf(resultado.subList(0, tamanhoPagina)),
+                cursorPaginacao.codificar(deslocamento + tamanhoPagina));
+    }
+
+    @Override
+    @Transactional(readOnly = true) // O Stream precisa da transação aberta enquanto é consumido
+    public void percorrerTodos(Consumer<Pessoa> consumidor) {
+        try (Stream<Pessoa> pessoas = pessoaRepository.findAllByOrderByIdAsc()) {
+            pessoas.forEach(pessoa -> {
+                consumidor.accept(pessoa);
+                // Desanexa a entidade já entregue para o contexto de persistência não crescer com a tabela
+                entityManager.detach(pessoa);
+            });
+        }
+    }
+
     @Override
     @Transactional
     public void excluir(Long id) {
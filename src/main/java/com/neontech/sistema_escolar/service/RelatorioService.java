@@ -0,0 +1,44 @@
+package com.neontech.sistema_escolar.service;
+
+import com.neontech.sistema_escolar.dto.ResumoFinanceiroCursoDTO;
+import com.neontech.sistema_escolar.dto.ResumoFinanceiroMensalDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Interface para o serviço de relatórios financeiros.
+ * Os totais são calculados pelo banco (GROUP BY), com uma única consulta por chamada.
+ */
+public interface RelatorioService {
+
+    /**
+     * Quantidade de matrículas e valor total por curso e status de pagamento.
+     *
+     * @param referencia Qual data da matrícula é comparada com o intervalo.
+     * @param de Início do intervalo, inclusivo (padrão: primeiro dia do mês atual).
+     * @param ate Fim do intervalo, inclusivo (padrão: último dia do mês atual).
+     * @return Uma linha por curso e status.
+     * @throws IllegalArgumentException se o início do intervalo for posterior ao fim.
+     */
+    List<ResumoFinanceiroCursoDTO> resumirPorCurso(DataReferencia referencia, LocalDate de, LocalDate ate);
+
+    /**
+     * Quantidade de matrículas e valor total por mês e status de pagamento.
+     *
+     * @param referencia Qual data da matrícula define o mês.
+     * @param de Início do intervalo, inclusivo (padrão: primeiro dia de 11 meses atrás).
+     * @param ate Fim do intervalo, inclusivo (padrão: último dia do mês atual).
+     * @return Uma linha por mês e status, em ordem cronológica; meses sem matrículas não aparecem.
+     * @throws IllegalArgumentException se o início do intervalo for posterior ao fim.
+     */
+    List<ResumoFinanceiroMensalDTO> resumirPorMes(DataReferencia referencia, LocalDate de, LocalDate ate);
+
+    /**
+     * Quantidade de matrículas e valor total por curso e status, considerando todas as matrículas.
+     * Lê os totais mantidos de forma incremental: o custo depende só da quantidade de cursos.
+     *
+     * @return Uma linha por curso e status com matrículas, ordenadas pelo nome do curso.
+     */
+    List<ResumoFinanceiroCursoDTO> resumirAcumuladoPorCurso();
+}
@@ -0,0 +1,64 @@
+package com.neontech.sistema_escolar.service;
+
+import com.neontech.sistema_escolar.dto.ResumoFinanceiroCursoDTO;
+import com.neontech.sistema_escolar.dto.ResumoFinanceiroMensalDTO;
+import com.neontech.sistema_escolar.repository.MatriculaRepository;
+import com.neontech.sistema_escolar.repository.ResumoFinanceiroCursoRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Implementação do serviço de relatórios financeiros.
+ */
+@Service
+@Transactional(readOnly = true)
+public class RelatorioServiceImpl implements RelatorioService {
+
+    private final MatriculaRepository matriculaRepository;
+    private final ResumoFinanceiroCursoRepository resumoRepository;
+
+    public RelatorioServiceImpl(MatriculaRepository matriculaRepository,
+                                ResumoFinanceiroCursoRepository resumoRepository) {
+        this.matriculaRepository = matriculaRepository;
+        this.resumoRepository = resumoRepository;
+    }
+
+    @Override
+    public List<ResumoFinanceiroCursoDTO> resumirPorCurso(DataReferencia referencia, LocalDate de, LocalDate ate) {
+        YearMonth mesAtual = YearMonth.now();
+        LocalDate inicio = de != null ? de : mesAtual.atDay(1);
+        LocalDate fim = ate != null ? ate : mesAtual.atEndOfMonth();
+        validarIntervalo(inicio, fim);
+        return switch (referencia) {
+            case VENCIMENTO -> matriculaRepository.resumirPorCursoNoVencimento(inicio, fim);
+            case MATRICULA -> matriculaRepository.resumirPorCursoNaMatricula(inicio, fim);
+        };
+    }
+
+    @Override
+    public List<ResumoFinanceiroMensalDTO> resumirPorMes(DataReferencia referencia, LocalDate de, LocalDate ate) {
+        YearMonth mesAtual = YearMonth.now();
+        LocalDate inicio = de != null ? de : mesAtual.minusMonths(11).atDay(1);
+        LocalDate fim = ate != null ? ate : mesAtual.atEndOfMonth();
+        validarIntervalo(inicio, fim);
+        return switch (referencia) {
+            case VENCIMENTO -> matriculaRepository.resumirPorMesDeVencimento(inicio, fim);
+            case MATRICULA -> matriculaRepository.resumirPorMesDaMatricula(inicio, fim);
+        };
+    }
+
+    @Override
+    public List<ResumoFinanceiroCursoDTO> resumirAcumuladoPorCurso() {
+        return resumoRepository.listarComCurso();
+    }
+
+    private static void validarIntervalo(LocalDate inicio, LocalDate fim) {
+        if (inicio.isAfter(fim)) {
+            throw new IllegalArgumentException("O início do intervalo deve ser anterior ou igual ao fim.");
+        }
+    }
+}
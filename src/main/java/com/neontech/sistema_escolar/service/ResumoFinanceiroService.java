@@ -0,0 +1,57 @@
+package com.neontech.sistema_escolar.service;
+
+import com.neontech.sistema_escolar.dto.ReconciliacaoResumoDTO;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+
+import java.math.BigDecimal;
+
+/**
+ * Interface para a manutenção dos totais acumulados por curso e status de pagamento.
+ * Os ajustes devem ser chamados dentro da transação da operação que os causou,
+ * para que a matrícula e o total sejam gravados (ou desfeitos) juntos.
+ */
+public interface ResumoFinanceiroService {
+
+    /**
+     * Cria os totais zerados de um curso novo, um por status de pagamento.
+     *
+     * @param cursoId O ID do curso.
+     */
+    void inicializarCurso(Long cursoId);
+
+    /**
+     * Remove os totais de um curso excluído.
+     *
+     * @param cursoId O ID do curso.
+     */
+    void removerCurso(Long cursoId);
+
+    /**
+     * Soma uma variação aos totais de um curso em um status (negativa para cancelamentos).
+     *
+     * @param cursoId O ID do curso.
+     * @param status O status de pagamento.
+     * @param quantidade A variação na quantidade de matrículas.
+     * @param valor A variação no valor total.
+     */
+    void ajustar(Long cursoId, StatusPagamento status, long quantidade, BigDecimal valor);
+
+    /**
+     * Move matrículas de um status para outro nos totais de um curso.
+     *
+     * @param cursoId O ID do curso.
+     * @param de O status anterior.
+     * @param para O novo status.
+     * @param quantidade A quantidade de matrículas movidas.
+     * @param valor O valor total das matrículas movidas.
+     */
+    void transferir(Long cursoId, StatusPagamento de, StatusPagamento para, long quantidade, BigDecimal valor);
+
+    /**
+     * Recalcula todos os totais a partir das matrículas, corrige as linhas divergentes e informa o que mudou.
+     * Os cursos são verificados em blocos, cada um em sua própria transação.
+     *
+     * @return O resultado da reconciliação, com as divergências encontradas.
+     */
+    ReconciliacaoResumoDTO reconciliar();
+}
@@ -0,0 +1,204 @@
+package com.neontech.sistema_escolar.service;
+
+import com.neontech.sistema_escolar.dto.DivergenciaResumoDTO;
+import com.neontech.sistema_escolar.dto.ReconciliacaoResumoDTO;
+import com.neontech.sistema_escolar.dto.ResumoFinanceiroCursoDTO;
+import com.neontech.sistema_escolar.model.ResumoFinanceiroCurso;
+import com.neontech.sistema_escolar.model.ResumoFinanceiroCursoId;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import com.neontech.sistema_escolar.repository.CursoRepository;
+import com.neontech.sistema_escolar.repository.MatriculaRepository;
+import com.neontech.sistema_escolar.repository.ResumoFinanceiroCursoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Implementação da manutenção dos totais acumulados por curso e status de pagamento.
+ */
+@Service
+public class ResumoFinanceiroServiceImpl implements ResumoFinanceiroService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumoFinanceiroServiceImpl.class);
+
+    private final ResumoFinanceiroCursoRepository resumoRepository;
+    private final MatriculaRepository matriculaRepository;
+    private final CursoRepository cursoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int cursosPorBloco;
+    private final Counter divergenciasEncontradas;
+
+    public ResumoFinanceiroServiceImpl(ResumoFinanceiroCursoRepository resumoRepository,
+                                       MatriculaRepository matriculaRepository,
+                                       CursoRepository cursoRepository,
+                                       TransactionTemplate transactionTemplate,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${sistema-escolar.resumo-financeiro.cursos-por-bloco:100}") int cursosPorBloco) {
+        this.resumoRepository = resumoRepository;
+        this.matriculaRepository = matriculaRepository;
+        this.cursoRepository = cursoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.cursosPorBloco = cursosPorBloco;
+        this.divergenciasEncontradas = Counter.builder("sistema_escolar.resumo_financeiro.divergencias")
+                .description("Linhas do resumo financeiro corrigidas pela reconciliação")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void inicializarCurso(Long cursoId) {
+        for (StatusPagamento status : StatusPagamento.values()) {
+            resumoRepository.criarSeAusente(cursoId, status.name());
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removerCurso(Long cursoId) {
+        resumoRepository.deleteByCursoId(cursoId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY) // Sempre na transação de quem alterou a matrícula
+    public void ajustar(Long cursoId, StatusPagamento status, long quantidade, BigDecimal valor) {
+        // Caminho normal: UPDATE atômico da linha já existente
+        if (resumoRepository.incrementar(cursoId, status, quantidade, valor) == 0) {
+            // Curso gravado sem passar pelo serviço de cursos: cria a linha zerada (ou espera quem a está
+            // criando ao mesmo tempo) e repete o UPDATE, em vez de dois INSERTs disputarem a chave primária
+            resumoRepository.criarSeAusente(cursoId, status.name());
+            resumoRepository.incrementar(cursoId, status, quantidade, valor);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void transferir(Long cursoId, StatusPagamento de, StatusPagamento para, long quantidade, BigDecimal valor) {
+        if (de == para) {
+            return;
+        }
+        // Atualiza as duas linhas sempre na mesma ordem (a do enum), para duas transferências
+        // opostas no mesmo curso não se bloquearem mutuamente (deadlock)
+        if (de.ordinal() < para.ordinal()) {
+            ajustar(cursoId, de, -quantidade, valor.negate());
+            ajustar(cursoId, para, quantidade, valor);
+        } else {
+            ajustar(cursoId, para, quantidade, valor);
+            ajustar(cursoId, de, -quantidade, valor.negate());
+        }
+    }
+
+    @Scheduled(cron = "${sistema-escolar.resumo-financeiro.reconciliacao-cron}")
+    public void reconciliarAgendada() {
+        reconciliar();
+    }
+
+    @Override
+    public ReconciliacaoResumoDTO reconciliar() {
+        LocalDateTime inicio = LocalDateTime.now();
+        long inicioNanos = System.nanoTime();
+
+        // Cursos existentes mais os que só restaram no resumo (curso excluído sem passar pelo serviço)
+        List<Long> existentes = cursoRepository.listarIds();
+        SortedSet<Long> cursoIds = new TreeSet<>(existentes);
+        cursoIds.addAll(resumoRepository.listarCursoIds());
+
+        // Cada bloco de cursos é verificado em uma transação curta, que bloqueia só as linhas desses cursos:
+        // as matrículas dos demais cursos não esperam pela contagem, e o que já foi corrigido fica corrigido
+        Set<Long> cursosExistentes = new HashSet<>(existentes);
+        List<DivergenciaResumoDTO> divergencias = new ArrayList<>();
+        int linhasVerificadas = 0;
+        List<Long> todos = new ArrayList<>(cursoIds);
+        for (int i = 0; i < todos.size(); i += cursosPorBloco) {
+            List<Long> bloco = todos.subList(i, Math.min(i + cursosPorBloco, todos.size()));
+            Integer verificadas = transactionTemplate.execute(status ->
+                    reconciliarBloco(bloco, cursosExistentes, divergencias));
+            linhasVerificadas += verificadas == null ? 0 : verificadas;
+        }
+
+        divergenciasEncontradas.increment(divergencias.size());
+        long duracaoMs = Duration.ofNanos(System.nanoTime() - inicioNanos).toMillis();
+        if (divergencias.isEmpty()) {
+            log.info("Reconciliação do resumo financeiro sem divergências ({} ms).", duracaoMs);
+        } else {
+            log.warn("Reconciliação do resumo financeiro corrigiu {} linha(s) divergente(s): {}", divergencias.size(), divergencias);
+        }
+        return new ReconciliacaoResumoDTO(inicio, duracaoMs, linhasVerificadas, divergencias);
+    }
+
+    // Um bloco: bloqueia as linhas dos cursos, recalcula a partir das matrículas desses cursos e corrige
+    private int reconciliarBloco(List<Long> cursoIds, Set<Long> cursosExistentes,
+                                 List<DivergenciaResumoDTO> divergencias) {
+        // 1. Bloqueia o resumo antes de contar: matrículas que terminarem durante a contagem
+        //    ficam esperando e só somam depois, sobre o total já corrigido
+        List<ResumoFinanceiroCurso> linhas = resumoRepository.findParaReconciliacao(cursoIds);
+        if (criarLinhasAusentes(cursoIds, cursosExistentes, linhas)) {
+            linhas = resumoRepository.findParaReconciliacao(cursoIds);
+        }
+        Map<ResumoFinanceiroCursoId, ResumoFinanceiroCurso> registrados = new HashMap<>();
+        linhas.forEach(resumo -> registrados.put(resumo.getId(), resumo));
+
+        // 2. Recalcula a partir das matrículas e compara
+        for (ResumoFinanceiroCursoDTO real : matriculaRepository.resumirPorCursos(cursoIds)) {
+            ResumoFinanceiroCurso registrado = registrados.remove(
+                    new ResumoFinanceiroCursoId(real.getCursoId(), real.getStatusPagamento()));
+            corrigir(registrado, real.getQuantidade(), real.getValorTotal(), divergencias);
+        }
+
+        // 3. O que sobrou no resumo não tem nenhuma matrícula: deve estar zerado
+        for (ResumoFinanceiroCurso sobra : registrados.values()) {
+            corrigir(sobra, 0, BigDecimal.ZERO, divergencias);
+        }
+        return linhas.size();
+    }
+
+    // Cria zeradas as linhas que faltam para os cursos do bloco (curso gravado sem passar pelo serviço),
+    // para que também fiquem bloqueadas antes da contagem
+    private boolean criarLinhasAusentes(List<Long> cursoIds, Set<Long> cursosExistentes,
+                                        List<ResumoFinanceiroCurso> linhas) {
+        Set<ResumoFinanceiroCursoId> presentes = new HashSet<>();
+        linhas.forEach(resumo -> presentes.add(resumo.getId()));
+        boolean criou = false;
+        for (Long cursoId : cursoIds) {
+            if (!cursosExistentes.contains(cursoId)) {
+                continue;
+            }
+            for (StatusPagamento status : StatusPagamento.values()) {
+                if (!presentes.contains(new ResumoFinanceiroCursoId(cursoId, status))) {
+                    resumoRepository.criarSeAusente(cursoId, status.name());
+                    criou = true;
+                }
+            }
+        }
+        return criou;
+    }
+
+    private void corrigir(ResumoFinanceiroCurso registrado, long quantidade, BigDecimal valorTotal,
+                          List<DivergenciaResumoDTO> divergencias) {
+        if (registrado.getQuantidade() != quantidade || registrado.getValorTotal().compareTo(valorTotal) != 0) {
+            divergencias.add(new DivergenciaResumoDTO(registrado.getId().getCursoId(),
+                    registrado.getId().getStatusPagamento(), registrado.getQuantidade(), quantidade,
+                    registrado.getValorTotal(), valorTotal));
+            registrado.setQuantidade(quantidade);
+            registrado.setValorTotal(valorTotal);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+-- Esquema inicial: pessoas, cursos e matrículas.
+-- Bancos já existentes (criados antes das migrações) começam na versão 1 (baseline) e pulam este script.
+
+CREATE TABLE pessoas (
+    id BIGSERIAL PRIMARY KEY,
+    nome VARCHAR(100) NOT NULL,
+    cpf VARCHAR(14) UNIQUE,
+    data_nascimento DATE,
+    email VARCHAR(100),
+    telefone VARCHAR(20)
+);
+
+CREATE TABLE cursos (
+    id BIGSERIAL PRIMARY KEY,
+    nome VARCHAR(150) NOT NULL,
+    descricao VARCHAR(500),
+    valor NUMERIC(10, 2) NOT NULL,
+    carga_horaria INTEGER,
+    ativo BOOLEAN NOT NULL DEFAULT TRUE
+);
+
+CREATE TABLE matriculas (
+    id BIGSERIAL PRIMARY KEY,
+    pessoa_id BIGINT NOT NULL REFERENCES pessoas (id),
+    curso_id BIGINT NOT NULL REFERENCES cursos (id),
+    data_matricula DATE NOT NULL,
+    valor_cobrado NUMERIC(10, 2) NOT NULL,
+    status_pagamento VARCHAR(255) NOT NULL,
+    data_vencimento DATE
+);
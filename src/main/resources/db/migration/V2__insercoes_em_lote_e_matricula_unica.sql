@@ -0,0 +1,14 @@
+-- Pessoas e matrículas usam sequência com alocação em blocos de 50 IDs (inserções em lote)
+ALTER SEQUENCE pessoas_id_seq INCREMENT BY 50;
+ALTER SEQUENCE matriculas_id_seq INCREMENT BY 50;
+
+-- Um aluno só pode ser matriculado uma vez em cada curso (a violação é devolvida como 409 Conflict).
+-- Em bancos antigos a restrição pode já ter sido criada manualmente.
+-- O índice da restrição começa por pessoa_id e também atende às buscas de matrículas por aluno.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_matriculas_pessoa_curso') THEN
+        ALTER TABLE matriculas ADD CONSTRAINT uk_matriculas_pessoa_curso UNIQUE (pessoa_id, curso_id);
+    END IF;
+END
+$$;
@@ -0,0 +1,21 @@
+-- Índices para os filtros usados pelos repositórios.
+-- Alguns podem já existir em bancos antigos (eram criados manualmente), daí o IF NOT EXISTS.
+
+-- Matrículas de um curso (findByCursoId, existsByCursoId)
+CREATE INDEX IF NOT EXISTS idx_matriculas_curso ON matriculas (curso_id);
+
+-- Matrículas por status e vencimento (findByStatusPagamento, findByDataVencimentoBeforeAndStatusPagamento)
+CREATE INDEX IF NOT EXISTS idx_matriculas_status_vencimento ON matriculas (status_pagamento, data_vencimento);
+
+-- Rotina de inadimplência: só as pendentes, que são a minoria da tabela
+CREATE INDEX IF NOT EXISTS idx_matriculas_pendentes_vencimento ON matriculas (data_vencimento)
+    WHERE status_pagamento = 'PENDENTE';
+
+-- Relatórios financeiros: índices de cobertura, respondidos sem ler a tabela
+CREATE INDEX IF NOT EXISTS idx_matriculas_vencimento_resumo ON matriculas (data_vencimento)
+    INCLUDE (curso_id, status_pagamento, valor_cobrado);
+CREATE INDEX IF NOT EXISTS idx_matriculas_matricula_resumo ON matriculas (data_matricula)
+    INCLUDE (curso_id, status_pagamento, valor_cobrado);
+
+-- Cursos ativos (findByAtivoTrue). O CPF das pessoas já é indexado pela restrição UNIQUE.
+CREATE INDEX IF NOT EXISTS idx_cursos_ativo ON cursos (ativo);
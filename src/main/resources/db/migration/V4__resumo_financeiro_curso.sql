@@ -0,0 +1,15 @@
+-- Totais de matrículas por curso e status, mantidos a cada matrícula (/api/relatorios/financeiro/cursos/acumulado)
+CREATE TABLE IF NOT EXISTS resumo_financeiro_curso (
+    curso_id BIGINT NOT NULL,
+    status_pagamento VARCHAR(255) NOT NULL,
+    quantidade BIGINT NOT NULL,
+    valor_total NUMERIC(14, 2) NOT NULL,
+    PRIMARY KEY (curso_id, status_pagamento)
+);
+
+-- Carga inicial a partir das matrículas existentes (linhas já preenchidas pela reconciliação são mantidas)
+INSERT INTO resumo_financeiro_curso (curso_id, status_pagamento, quantidade, valor_total)
+SELECT curso_id, status_pagamento, COUNT(*), SUM(valor_cobrado)
+FROM matriculas
+GROUP BY curso_id, status_pagamento
+ON CONFLICT (curso_id, status_pagamento) DO NOTHING;
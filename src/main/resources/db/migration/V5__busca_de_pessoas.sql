@@ -0,0 +1,19 @@
+-- Busca de pessoas por trecho do nome, do e-mail ou do CPF (GET /api/pessoas/busca).
+-- Requer as extensões pg_trgm e unaccent (pacote contrib do PostgreSQL).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() é STABLE e não pode ser usada em índices; esta versão fixa o dicionário e é IMMUTABLE.
+-- Minúsculas e sem acentos: "JOSÉ" e "jose" encontram o mesmo nome.
+CREATE OR REPLACE FUNCTION texto_busca(texto TEXT) RETURNS TEXT
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+AS $$ SELECT public.unaccent('public.unaccent'::regdictionary, lower(texto)) $$;
+
+-- Índices GiST de trigramas: atendem ao filtro por semelhança (<%) e devolvem as linhas já na ordem
+-- de distância (<<->), então a consulta lê só as primeiras linhas do ranking, sem ordenar todas as encontradas.
+CREATE INDEX IF NOT EXISTS idx_pessoas_nome_trgm ON pessoas USING gist (texto_busca(nome) gist_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_pessoas_email_trgm ON pessoas USING gist (lower(email) gist_trgm_ops);
+
+-- Trecho do CPF, comparado só pelos dígitos (com ou sem pontuação)
+CREATE INDEX IF NOT EXISTS idx_pessoas_cpf_digitos_trgm ON pessoas
+    USING gin (regexp_replace(cpf, '[^0-9]', '', 'g') gin_trgm_ops);
@@ -0,0 +1,3 @@
+-- Versão das matrículas (bloqueio otimista). Cada alteração a incrementa; a API a expõe como ETag
+-- e a troca de status de pagamento só grava se a versão lida ainda for a atual.
+ALTER TABLE matriculas ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
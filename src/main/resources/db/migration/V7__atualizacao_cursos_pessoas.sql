@@ -0,0 +1,4 @@
+-- Momento da última alteração de cursos e pessoas, mantido pelo Hibernate a cada gravação.
+-- A API o usa como versão nas leituras condicionais (ETag, Last-Modified e 304 Not Modified).
+ALTER TABLE cursos ADD COLUMN IF NOT EXISTS atualizado_em TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now();
+ALTER TABLE pessoas ADD COLUMN IF NOT EXISTS atualizado_em TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now();
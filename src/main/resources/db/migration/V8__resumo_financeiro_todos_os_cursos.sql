@@ -0,0 +1,7 @@
+-- Totais zerados para todo curso e status ainda sem linha: cursos sem matrículas na V4, ou gravados sem passar
+-- pelo serviço de cursos. Assim a primeira matrícula do curso só faz UPDATE, sem disputar o INSERT da linha.
+INSERT INTO resumo_financeiro_curso (curso_id, status_pagamento, quantidade, valor_total)
+SELECT c.id, s.status_pagamento, 0, 0
+FROM cursos c
+CROSS JOIN (VALUES ('PENDENTE'), ('PAGO'), ('ATRASADO')) AS s (status_pagamento)
+ON CONFLICT (curso_id, status_pagamento) DO NOTHING;
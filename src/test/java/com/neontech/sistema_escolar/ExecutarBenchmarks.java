@@ -0,0 +1,34 @@
+package com.neontech.sistema_escolar;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Executa os benchmarks JMH (classes {@code *Benchmark}) e grava o resultado em JSON,
+ * para comparar o desempenho entre versões. Chamado pelo perfil Maven "jmh": {@code mvn test -Pjmh}.
+ * <p>
+ * Argumentos: expressão regular dos benchmarks a executar e arquivo do resultado.
+ */
+public final class ExecutarBenchmarks {
+
+    private ExecutarBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String filtro = args.length > 0 ? args[0] : ".*";
+        String resultado = args.length > 1 ? args[1] : "target/jmh/resultado.json";
+        new File(resultado).getAbsoluteFile().getParentFile().mkdirs();
+
+        Options opcoes = new OptionsBuilder()
+                .include(filtro)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultado)
+                .build();
+        new Runner(opcoes).run();
+    }
+}
@@ -0,0 +1,146 @@
+package com.neontech.sistema_escolar;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarFile;
+
+/**
+ * Mede o tempo até a primeira requisição bem-sucedida de cada variante empacotada da aplicação:
+ * o JAR comum, o mesmo JAR com o código gerado pelo Spring AOT, o JAR extraído com AOT e o arquivo
+ * de class-data sharing (CDS) e, se tiver sido gerado, o executável nativo (GraalVM).
+ * Chamado pelo perfil Maven "inicializacao": {@code mvn verify -Paot,inicializacao}.
+ * <p>
+ * Cada execução sobe a aplicação em uma porta livre e chama {@code GET /api/cursos/ativos} até receber 200
+ * (o primeiro acesso ao banco incluído). O banco é o da configuração da aplicação; para outro, exporte
+ * {@code SPRING_DATASOURCE_URL}, {@code SPRING_DATASOURCE_USERNAME} e {@code SPRING_DATASOURCE_PASSWORD}.
+ * <p>
+ * Argumentos: diretório target, nome do JAR (sem extensão), repetições por variante e arquivo CSV do resultado.
+ */
+public final class MedirInicializacao {
+
+    private static final Duration LIMITE = Duration.ofMinutes(2);
+    private static final Duration INTERVALO_TENTATIVAS = Duration.ofMillis(20);
+
+    private MedirInicializacao() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path target = Path.of(args.length > 0 ? args[0] : "target");
+        String nome = args.length > 1 ? args[1] : "sistema-escolar-0.0.1-SNAPSHOT";
+        int repeticoes = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        Path resultado = Path.of(args.length > 3 ? args[3] : target.resolve("inicializacao/tempos.csv").toString());
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        // Variante -> diretório de trabalho e comando; ficam de fora as que não foram geradas por este build
+        Map<String, Variante> variantes = new LinkedHashMap<>();
+        Path jar = target.resolve(nome + ".jar");
+        if (Files.exists(jar)) {
+            variantes.put("jar", new Variante(target, List.of(java, "-jar", jar.toString())));
+            if (jarComAot(jar)) {
+                variantes.put("jar-aot", new Variante(target,
+                        List.of(java, "-Dspring.aot.enabled=true", "-jar", jar.toString())));
+            }
+        }
+        Path cds = target.resolve("cds");
+        if (Files.exists(cds.resolve("application.jsa"))) {
+            variantes.put("jar-aot-cds", new Variante(cds, List.of(java, "-XX:SharedArchiveFile=application.jsa",
+                    "-Dspring.aot.enabled=true", "-jar", nome + ".jar")));
+        }
+        Path nativo = target.resolve("sistema-escolar");
+        if (Files.isExecutable(nativo)) {
+            variantes.put("nativo", new Variante(target, List.of(nativo.toAbsolutePath().toString())));
+        }
+        if (variantes.isEmpty()) {
+            throw new IllegalStateException("Nenhuma variante encontrada em " + target.toAbsolutePath()
+                    + ". Rode antes mvn package (com -Paot e/ou -Pnative para as demais variantes).");
+        }
+
+        HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        Files.createDirectories(resultado.toAbsolutePath().getParent());
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(resultado))) {
+            csv.println("variante,execucao,ms_ate_primeira_resposta");
+            for (Map.Entry<String, Variante> variante : variantes.entrySet()) {
+                List<Long> tempos = new ArrayList<>();
+                for (int i = 1; i <= repeticoes; i++) {
+                    long ms = medir(variante.getValue(), cliente);
+                    tempos.add(ms);
+                    csv.println(variante.getKey() + "," + i + "," + ms);
+                }
+                Collections.sort(tempos);
+                System.out.printf("%-12s mínimo %6d ms   mediana %6d ms   máximo %6d ms%n", variante.getKey(),
+                        tempos.get(0), tempos.get(tempos.size() / 2), tempos.get(tempos.size() - 1));
+            }
+        }
+        System.out.println("Resultado em " + resultado.toAbsolutePath());
+    }
+
+    private record Variante(Path diretorio, List<String> comando) {
+    }
+
+    private static long medir(Variante variante, HttpClient cliente) throws IOException, InterruptedException {
+        int porta = portaLivre();
+        List<String> comando = new ArrayList<>(variante.comando());
+        comando.add("--server.port=" + porta);
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/cursos/ativos"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        File log = variante.diretorio().resolve("inicializacao.log").toFile();
+
+        long inicio = System.nanoTime();
+        Process processo = new ProcessBuilder(comando)
+                .directory(variante.diretorio().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(log))
+                .start();
+        try {
+            long limite = inicio + LIMITE.toNanos();
+            while (System.nanoTime() < limite) {
+                if (!processo.isAlive()) {
+                    throw new IllegalStateException("A aplicação parou antes de responder: " + comando
+                            + " (veja " + log.getAbsolutePath() + ")");
+                }
+                try {
+                    if (cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - inicio) / 1_000_000;
+                    }
+                } catch (IOException e) {
+                    // Ainda não está ouvindo a porta
+                }
+                Thread.sleep(INTERVALO_TENTATIVAS.toMillis());
+            }
+            throw new IllegalStateException("Sem resposta em " + LIMITE + ": " + comando);
+        } finally {
+            processo.destroy();
+            processo.waitFor();
+        }
+    }
+
+    // O código gerado pelo processamento AOT fica no próprio JAR (perfil aot ou native)
+    private static boolean jarComAot(Path jar) throws IOException {
+        try (JarFile arquivo = new JarFile(jar.toFile())) {
+            return arquivo.stream()
+                    .anyMatch(entrada -> entrada.getName().endsWith("__ApplicationContextInitializer.class"));
+        }
+    }
+
+    private static int portaLivre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.neontech.sistema_escolar.carga;
+
+import com.neontech.sistema_escolar.service.PessoaService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de latência de {@code GET /api/pessoas/busca} (pelo serviço) sobre uma base de um milhão de pessoas
+ * gerada por {@link GeradorPessoas}, em um PostgreSQL real com as migrações do Flyway.
+ * Mistura trechos de nome (com e sem acento, inteiros e parciais), de e-mail e de CPF,
+ * imprime os percentis e falha se o p99 passar de 50 ms.
+ * <p>
+ * Roda apenas com o perfil Maven "carga" e precisa de Docker: {@code mvn test -Pcarga -Dtest=CargaBuscaPessoasTest}.
+ * Os parâmetros podem ser ajustados com {@code -Dcarga.pessoas=...} e {@code -Dcarga.buscas=...}.
+ */
+@SpringBootTest
+@ActiveProfiles({"test", "postgres"})
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Tag("carga")
+class CargaBuscaPessoasTest {
+
+    private static final int PESSOAS = Integer.getInteger("carga.pessoas", 1_000_000);
+    private static final int BUSCAS = Integer.getInteger("carga.buscas", 2000);
+    private static final int AQUECIMENTO = 200;
+    private static final double P99_MAXIMO_MS = 50;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void popularBase() {
+        GeradorPessoas.gerar(jdbcTemplate, PESSOAS);
+    }
+
+    @Test
+    void buscaDePessoasSobUmMilhaoDeRegistros() {
+        Random aleatorio = new Random(42); // Sequência fixa, para execuções comparáveis
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            pessoaService.buscar(termoAleatorio(aleatorio), null, 20);
+        }
+
+        long[] latencias = new long[BUSCAS];
+        for (int i = 0; i < BUSCAS; i++) {
+            String termo = termoAleatorio(aleatorio);
+            long inicio = System.nanoTime();
+            pessoaService.buscar(termo, null, 20);
+            latencias[i] = System.nanoTime() - inicio;
+        }
+
+        Arrays.sort(latencias);
+        double p99 = percentil(latencias, 99);
+        System.out.printf("[carga] busca pessoas=%d buscas=%d p50=%.1f ms p95=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                PESSOAS, BUSCAS, percentil(latencias, 50), percentil(latencias, 95), p99, percentil(latencias, 100));
+        assertTrue(p99 < P99_MAXIMO_MS, "p99 de " + p99 + " ms");
+    }
+
+    // Termos como os digitados na secretaria: nomes e sobrenomes (às vezes sem acento ou só o começo),
+    // nome e sobrenome juntos, trechos de e-mail e de CPF
+    private static String termoAleatorio(Random aleatorio) {
+        String nome = GeradorPessoas.NOMES[aleatorio.nextInt(GeradorPessoas.NOMES.length)];
+        String sobrenome = GeradorPessoas.SOBRENOMES[aleatorio.nextInt(GeradorPessoas.SOBRENOMES.length)];
+        List<String> termos = List.of(
+                nome,
+                sobrenome.toUpperCase(),
+                semAcentos(sobrenome),
+                sobrenome.substring(0, Math.min(sobrenome.length(), 4)),
+                nome + " " + sobrenome,
+                semAcentos(nome).toLowerCase() + "." + semAcentos(sobrenome).toLowerCase() + "@",
+                GeradorPessoas.digitosCpf(1 + aleatorio.nextInt(PESSOAS)).substring(3, 9));
+        return termos.get(aleatorio.nextInt(termos.size()));
+    }
+
+    private static String semAcentos(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+    }
+
+    private static double percentil(long[] ordenadas, int percentil) {
+        int posicao = Math.max(0, (int) Math.ceil(percentil / 100.0 * ordenadas.length) - 1);
+        return ordenadas[posicao] / 1_000_000.0;
+    }
+}
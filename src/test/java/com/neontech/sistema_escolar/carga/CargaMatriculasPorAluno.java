@@ -0,0 +1,152 @@
+package com.neontech.sistema_escolar.carga;
+
+import com.neontech.sistema_escolar.model.Curso;
+import com.neontech.sistema_escolar.model.Matricula;
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import com.neontech.sistema_escolar.repository.CursoRepository;
+import com.neontech.sistema_escolar.repository.MatriculaRepository;
+import com.neontech.sistema_escolar.repository.PessoaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Teste de carga de {@code GET /api/matriculas/aluno/{id}}, executado contra o servidor real em uma porta aleatória.
+ * As subclasses definem o modo de execução das requisições (threads de plataforma ou virtuais),
+ * e cada execução imprime vazão e latências para comparação.
+ * <p>
+ * Roda apenas com o perfil Maven "carga": {@code mvn test -Pcarga}.
+ * Os parâmetros podem ser ajustados com {@code -Dcarga.requisicoes=...} e {@code -Dcarga.concorrencia=...}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Tag("carga")
+abstract class CargaMatriculasPorAluno {
+
+    private static final int REQUISICOES = Integer.getInteger("carga.requisicoes", 20000);
+    private static final int CONCORRENCIA = Integer.getInteger("carga.concorrencia", 500);
+    private static final int AQUECIMENTO = 2000;
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    private URI uri;
+
+    /** Nome do modo exibido no resultado. */
+    protected abstract String modo();
+
+    @BeforeEach
+    void setUp() {
+        Pessoa aluno = pessoaRepository.save(new Pessoa(null, "Aluno Carga", "999.999.999-99",
+                LocalDate.of(2000, 1, 1), "carga@email.com", null, null));
+        for (int i = 1; i <= 5; i++) {
+            Curso curso = cursoRepository.save(new Curso(null, "Curso " + i, null, new BigDecimal("100.00"), 40, true, null));
+            matriculaRepository.save(new Matricula(null, aluno, curso, LocalDate.now(),
+                    new BigDecimal("100.00"), StatusPagamento.PENDENTE, LocalDate.now().plusDays(30), null));
+        }
+        uri = URI.create("http://localhost:" + porta + "/api/matriculas/aluno/" + aluno.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        matriculaRepository.deleteAll();
+        pessoaRepository.deleteAll();
+        cursoRepository.deleteAll();
+    }
+
+    @Test
+    void listarMatriculasPorAlunoSobCarga() throws Exception {
+        executar(AQUECIMENTO);
+        Resultado resultado = executar(REQUISICOES);
+
+        System.out.printf("[carga] modo=%s requisicoes=%d concorrencia=%d vazao=%.0f req/s p50=%.1f ms p95=%.1f ms p99=%.1f ms max=%.1f ms erros=%d%n",
+                modo(), REQUISICOES, CONCORRENCIA, resultado.vazao(),
+                resultado.percentil(50), resultado.percentil(95), resultado.percentil(99),
+                resultado.percentil(100), resultado.erros());
+        assertEquals(0, resultado.erros());
+    }
+
+    // Dispara as requisições com no máximo CONCORRENCIA em andamento ao mesmo tempo.
+    // O cliente usa threads virtuais para não ser ele o gargalo.
+    private Resultado executar(int quantidade) throws Exception {
+        HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest requisicao = HttpRequest.newBuilder(uri).GET().build();
+        Semaphore emAndamento = new Semaphore(CONCORRENCIA);
+        AtomicInteger erros = new AtomicInteger();
+        long[] latencias = new long[quantidade];
+
+        long inicio = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> tarefas = new ArrayList<>(quantidade);
+            for (int i = 0; i < quantidade; i++) {
+                int indice = i;
+                emAndamento.acquire();
+                tarefas.add(executor.submit(() -> {
+                    long envio = System.nanoTime();
+                    try {
+                        HttpResponse<Void> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding());
+                        if (resposta.statusCode() != 200) {
+                            erros.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        erros.incrementAndGet();
+                    } finally {
+                        latencias[indice] = System.nanoTime() - envio;
+                        emAndamento.release();
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        }
+        long duracao = System.nanoTime() - inicio;
+        return new Resultado(latencias, duracao, erros.get());
+    }
+
+    private record Resultado(long[] latencias, long duracaoNanos, int erros) {
+
+        double vazao() {
+            return latencias.length / (duracaoNanos / 1_000_000_000.0);
+        }
+
+        double percentil(int percentil) {
+            long[] ordenadas = latencias.clone();
+            Arrays.sort(ordenadas);
+            int posicao = Math.max(0, (int) Math.ceil(percentil / 100.0 * ordenadas.length) - 1);
+            return ordenadas[posicao] / 1_000_000.0;
+        }
+    }
+}
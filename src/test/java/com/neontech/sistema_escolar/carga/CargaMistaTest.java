@@ -0,0 +1,308 @@
+package com.neontech.sistema_escolar.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neontech.sistema_escolar.service.CursoService;
+import com.neontech.sistema_escolar.service.MatriculaService;
+import com.neontech.sistema_escolar.service.PessoaService;
+import com.neontech.sistema_escolar.service.ResumoFinanceiroService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Teste de carga da aplicação completa: popula o banco com {@link GeradorDados} e dispara, ao mesmo tempo,
+ * três cenários contra o servidor real em uma porta aleatória:
+ * <ul>
+ *     <li>corrida de matrículas: cadastra uma pessoa e a matricula em um curso;</li>
+ *     <li>painel: consulta totais por curso, cursos ativos, páginas de matrículas e matrículas de um aluno;</li>
+ *     <li>pagamentos: marca matrículas como pagas.</li>
+ * </ul>
+ * Cada usuário virtual repete o seu cenário sem pausa até o fim da medição, então o resultado é o teto de vazão
+ * para a concorrência escolhida. Ao final imprime, por endpoint, requisições por segundo e latências p50/p95/p99,
+ * e grava a mesma tabela em {@code target/carga/carga-mista.csv}.
+ * <p>
+ * Roda apenas com o perfil Maven "carga": {@code mvn test -Pcarga -Dtest=CargaMistaTest}.
+ * Usa o PostgreSQL informado em {@code -Dcarga.banco.url=jdbc:postgresql://...} (com {@code carga.banco.usuario}
+ * e {@code carga.banco.senha}; o banco deve estar vazio, o esquema é criado pelas migrações) ou, sem ele,
+ * um PostgreSQL descartável via Docker. Volumes e concorrência: {@code carga.cursos}, {@code carga.pessoas},
+ * {@code carga.matriculas-por-pessoa}, {@code carga.usuarios.corrida}, {@code carga.usuarios.painel},
+ * {@code carga.usuarios.pagamentos}, {@code carga.aquecimento} e {@code carga.duracao} (em segundos).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "postgres"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIf("bancoDisponivel")
+@Tag("carga")
+class CargaMistaTest {
+
+    private static final String URL_BANCO = System.getProperty("carga.banco.url");
+    private static final int CURSOS = Integer.getInteger("carga.cursos", 200);
+    private static final int PESSOAS = Integer.getInteger("carga.pessoas", 50_000);
+    private static final int MATRICULAS_POR_PESSOA = Integer.getInteger("carga.matriculas-por-pessoa", 3);
+    private static final int USUARIOS_CORRIDA = Integer.getInteger("carga.usuarios.corrida", 20);
+    private static final int USUARIOS_PAINEL = Integer.getInteger("carga.usuarios.painel", 50);
+    private static final int USUARIOS_PAGAMENTOS = Integer.getInteger("carga.usuarios.pagamentos", 10);
+    private static final Duration AQUECIMENTO = Duration.ofSeconds(Integer.getInteger("carga.aquecimento", 10));
+    private static final Duration DURACAO = Duration.ofSeconds(Integer.getInteger("carga.duracao", 60));
+
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private CursoService cursoService;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private MatriculaService matriculaService;
+
+    @Autowired
+    private ResumoFinanceiroService resumoFinanceiroService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final AtomicLong proximoCpf = new AtomicLong(90_000_000_000L); // Faixa separada da dos dados gerados
+    private GeradorDados.Dados dados;
+
+    static boolean bancoDisponivel() {
+        return URL_BANCO != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @DynamicPropertySource
+    static void configurarBanco(DynamicPropertyRegistry registro) {
+        if (URL_BANCO != null) {
+            registro.add("spring.datasource.url", () -> URL_BANCO);
+            registro.add("spring.datasource.username", () -> System.getProperty("carga.banco.usuario", "postgres"));
+            registro.add("spring.datasource.password", () -> System.getProperty("carga.banco.senha", "postgres"));
+        } else {
+            POSTGRES.start();
+            registro.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+            registro.add("spring.datasource.username", POSTGRES::getUsername);
+            registro.add("spring.datasource.password", POSTGRES::getPassword);
+        }
+    }
+
+    @BeforeAll
+    void popularBase() {
+        long inicio = System.nanoTime();
+        dados = GeradorDados.gerar(cursoService, pessoaService, matriculaService, CURSOS, PESSOAS, MATRICULAS_POR_PESSOA);
+        resumoFinanceiroService.reconciliar(); // Garante os totais por curso antes da medição
+        System.out.printf("[carga] dados cursos=%d pessoas=%d matriculas=%d em %.1f s%n", dados.cursoIds().size(),
+                dados.pessoaIds().size(), dados.matriculaIds().size(), (System.nanoTime() - inicio) / 1e9);
+    }
+
+    @Test
+    void cargaMistaDeMatriculasPainelEPagamentos() throws Exception {
+        executar(AQUECIMENTO, new Medicoes());
+        Medicoes medicoes = new Medicoes();
+        executar(DURACAO, medicoes);
+
+        List<String> linhas = medicoes.relatorio(DURACAO);
+        linhas.forEach(linha -> System.out.println("[carga] " + linha));
+        Path arquivo = Path.of("target", "carga", "carga-mista.csv");
+        Files.createDirectories(arquivo.getParent());
+        Files.write(arquivo, medicoes.csv(DURACAO));
+        assertEquals(0, medicoes.erros(), String.join("\n", linhas));
+    }
+
+    // Roda os três cenários ao mesmo tempo, cada usuário virtual em uma thread virtual, até o fim do período
+    private void executar(Duration periodo, Medicoes medicoes) throws InterruptedException {
+        long fim = System.nanoTime() + periodo.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            iniciarUsuarios(executor, USUARIOS_CORRIDA, fim, aleatorio -> corridaDeMatriculas(aleatorio, medicoes));
+            iniciarUsuarios(executor, USUARIOS_PAINEL, fim, aleatorio -> painel(aleatorio, medicoes));
+            iniciarUsuarios(executor, USUARIOS_PAGAMENTOS, fim, aleatorio -> pagamentos(aleatorio, medicoes));
+        }
+    }
+
+    private static void iniciarUsuarios(ExecutorService executor, int usuarios, long fim, Consumer<Random> cenario) {
+        for (int i = 0; i < usuarios; i++) {
+            Random aleatorio = new Random(i);
+            executor.submit(() -> {
+                while (System.nanoTime() < fim) {
+                    cenario.accept(aleatorio);
+                }
+            });
+        }
+    }
+
+    private void corridaDeMatriculas(Random aleatorio, Medicoes medicoes) {
+        long numero = proximoCpf.getAndIncrement();
+        String pessoa = requisitar(medicoes, "POST /api/pessoas", "/api/pessoas", "POST", json(Map.of(
+                "nome", "Aluno " + numero, "cpf", GeradorDados.cpf(numero), "email", "aluno" + numero + "@email.com")));
+        if (pessoa == null) {
+            return;
+        }
+        long alunoId = lerId(pessoa);
+        Long cursoId = sortear(dados.cursoIds(), aleatorio);
+        requisitar(medicoes, "POST /api/matriculas", "/api/matriculas", "POST", json(Map.of(
+                "alunoId", alunoId, "cursoId", cursoId, "valorCobrado", "150.00",
+                "dataVencimento", LocalDate.now().plusDays(30).toString())));
+    }
+
+    private void painel(Random aleatorio, Medicoes medicoes) {
+        switch (aleatorio.nextInt(4)) {
+            case 0 -> requisitar(medicoes, "GET /api/relatorios/financeiro/cursos/acumulado",
+                    "/api/relatorios/financeiro/cursos/acumulado", "GET", null);
+            case 1 -> requisitar(medicoes, "GET /api/cursos/ativos", "/api/cursos/ativos", "GET", null);
+            case 2 -> requisitar(medicoes, "GET /api/matriculas/pagina", "/api/matriculas/pagina?tamanho=50", "GET", null);
+            default -> requisitar(medicoes, "GET /api/matriculas/aluno/{id}",
+                    "/api/matriculas/aluno/" + sortear(dados.pessoaIds(), aleatorio), "GET", null);
+        }
+    }
+
+    private void pagamentos(Random aleatorio, Medicoes medicoes) {
+        requisitar(medicoes, "PATCH /api/matriculas/{id}/status-pagamento",
+                "/api/matriculas/" + sortear(dados.matriculaIds(), aleatorio) + "/status-pagamento", "PATCH",
+                json(Map.of("status", "PAGO")));
+    }
+
+    // Envia a requisição e registra a latência; devolve o corpo, ou nulo se a resposta não foi 2xx
+    private String requisitar(Medicoes medicoes, String endpoint, String caminho, String metodo, String corpo) {
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + caminho));
+        if (corpo != null) {
+            requisicao.header("Content-Type", "application/json")
+                    .method(metodo, HttpRequest.BodyPublishers.ofString(corpo));
+        } else {
+            requisicao.method(metodo, HttpRequest.BodyPublishers.noBody());
+        }
+        long envio = System.nanoTime();
+        try {
+            HttpResponse<String> resposta = cliente.send(requisicao.build(), HttpResponse.BodyHandlers.ofString());
+            boolean sucesso = resposta.statusCode() / 100 == 2;
+            medicoes.registrar(endpoint, System.nanoTime() - envio, sucesso);
+            return sucesso ? resposta.body() : null;
+        } catch (IOException e) {
+            medicoes.registrar(endpoint, System.nanoTime() - envio, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static <T> T sortear(List<T> valores, Random aleatorio) {
+        return valores.get(aleatorio.nextInt(valores.size()));
+    }
+
+    private String json(Map<String, Object> valores) {
+        try {
+            return objectMapper.writeValueAsString(valores);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long lerId(String json) {
+        try {
+            return objectMapper.readTree(json).get("id").asLong();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Latências e erros por endpoint. */
+    private static final class Medicoes {
+
+        private final Map<String, List<Long>> latencias = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> erros = new ConcurrentHashMap<>();
+
+        void registrar(String endpoint, long nanos, boolean sucesso) {
+            List<Long> lista = latencias.computeIfAbsent(endpoint, chave -> new ArrayList<>());
+            synchronized (lista) {
+                lista.add(nanos);
+            }
+            AtomicInteger contador = erros.computeIfAbsent(endpoint, chave -> new AtomicInteger());
+            if (!sucesso) {
+                contador.incrementAndGet();
+            }
+        }
+
+        int erros() {
+            return erros.values().stream().mapToInt(AtomicInteger::get).sum();
+        }
+
+        List<String> relatorio(Duration periodo) {
+            List<String> linhas = new ArrayList<>();
+            long total = 0;
+            for (Map.Entry<String, long[]> entrada : ordenadas().entrySet()) {
+                long[] valores = entrada.getValue();
+                total += valores.length;
+                linhas.add(String.format("%-50s requisicoes=%d vazao=%.0f req/s p50=%.1f ms p95=%.1f ms p99=%.1f ms erros=%d",
+                        entrada.getKey(), valores.length, valores.length / (double) periodo.toSeconds(),
+                        percentil(valores, 50), percentil(valores, 95), percentil(valores, 99),
+                        erros.get(entrada.getKey()).get()));
+            }
+            linhas.add(String.format("total requisicoes=%d vazao=%.0f req/s erros=%d",
+                    total, total / (double) periodo.toSeconds(), erros()));
+            return linhas;
+        }
+
+        List<String> csv(Duration periodo) {
+            List<String> linhas = new ArrayList<>();
+            linhas.add("endpoint,requisicoes,vazao,p50_ms,p95_ms,p99_ms,erros");
+            ordenadas().forEach((endpoint, valores) -> linhas.add(String.format(java.util.Locale.ROOT,
+                    "%s,%d,%.1f,%.2f,%.2f,%.2f,%d", endpoint, valores.length, valores.length / (double) periodo.toSeconds(),
+                    percentil(valores, 50), percentil(valores, 95), percentil(valores, 99), erros.get(endpoint).get())));
+            return linhas;
+        }
+
+        private Map<String, long[]> ordenadas() {
+            Map<String, long[]> resultado = new TreeMap<>();
+            latencias.forEach((endpoint, lista) -> {
+                long[] valores;
+                synchronized (lista) {
+                    valores = lista.stream().mapToLong(Long::longValue).toArray();
+                }
+                Arrays.sort(valores);
+                resultado.put(endpoint, valores);
+            });
+            return resultado;
+        }
+
+        private static double percentil(long[] ordenadas, int percentil) {
+            int posicao = Math.max(0, (int) Math.ceil(percentil / 100.0 * ordenadas.length) - 1);
+            return ordenadas[posicao] / 1_000_000.0;
+        }
+    }
+}
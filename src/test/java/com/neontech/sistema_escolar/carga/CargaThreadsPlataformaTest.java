@@ -0,0 +1,15 @@
+package com.neontech.sistema_escolar.carga;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Carga com o pool padrão de threads de plataforma do Tomcat (até 200 threads).
+ */
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+class CargaThreadsPlataformaTest extends CargaMatriculasPorAluno {
+
+    @Override
+    protected String modo() {
+        return "plataforma";
+    }
+}
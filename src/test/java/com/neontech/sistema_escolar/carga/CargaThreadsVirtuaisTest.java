@@ -0,0 +1,15 @@
+package com.neontech.sistema_escolar.carga;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Carga com as requisições atendidas por threads virtuais.
+ */
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class CargaThreadsVirtuaisTest extends CargaMatriculasPorAluno {
+
+    @Override
+    protected String modo() {
+        return "virtual";
+    }
+}
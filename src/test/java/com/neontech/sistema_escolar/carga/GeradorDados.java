@@ -0,0 +1,90 @@
+package com.neontech.sistema_escolar.carga;
+
+import com.neontech.sistema_escolar.dto.NovaMatriculaDTO;
+import com.neontech.sistema_escolar.dto.ResultadoLoteDTO;
+import com.neontech.sistema_escolar.model.Curso;
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.service.CursoService;
+import com.neontech.sistema_escolar.service.MatriculaService;
+import com.neontech.sistema_escolar.service.PessoaService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Popula a base para os testes de carga com volumes configuráveis de cursos, pessoas e matrículas.
+ * Grava pelos próprios serviços de importação em lote, então os totais por curso ficam consistentes
+ * e a geração funciona em qualquer banco suportado. A semente é fixa: a mesma configuração gera os mesmos dados.
+ */
+final class GeradorDados {
+
+    private static final int TAMANHO_BLOCO = 5000;
+
+    /** IDs gerados, usados pelos cenários para montar as requisições. */
+    record Dados(List<Long> cursoIds, List<Long> pessoaIds, List<Long> matriculaIds) {
+    }
+
+    private GeradorDados() {
+    }
+
+    static Dados gerar(CursoService cursoService, PessoaService pessoaService, MatriculaService matriculaService,
+                       int cursos, int pessoas, int matriculasPorPessoa) {
+        Random aleatorio = new Random(42);
+
+        List<Long> cursoIds = new ArrayList<>(cursos);
+        for (int i = 1; i <= cursos; i++) {
+            BigDecimal valor = BigDecimal.valueOf(100 + aleatorio.nextInt(900)).setScale(2);
+            cursoIds.add(cursoService.salvar(new Curso(null, "Curso " + i, null, valor, 40, true, null)).getId());
+        }
+
+        List<Long> pessoaIds = new ArrayList<>(pessoas);
+        for (int inicio = 0; inicio < pessoas; inicio += TAMANHO_BLOCO) {
+            List<Pessoa> bloco = new ArrayList<>();
+            for (int i = inicio; i < Math.min(inicio + TAMANHO_BLOCO, pessoas); i++) {
+                String nome = GeradorPessoas.NOMES[aleatorio.nextInt(GeradorPessoas.NOMES.length)] + " "
+                        + GeradorPessoas.SOBRENOMES[aleatorio.nextInt(GeradorPessoas.SOBRENOMES.length)];
+                bloco.add(new Pessoa(null, nome, cpf(i), LocalDate.of(1980, 1, 1).plusDays(aleatorio.nextInt(10_000)),
+                        "pessoa" + i + "@email.com", null, null));
+            }
+            idsGravados(pessoaService.importar(bloco), pessoaIds);
+        }
+
+        // Cada pessoa em cursos distintos, escolhidos a partir de uma posição aleatória
+        List<Long> matriculaIds = new ArrayList<>(pessoas * matriculasPorPessoa);
+        List<NovaMatriculaDTO> bloco = new ArrayList<>();
+        for (Long pessoaId : pessoaIds) {
+            int primeiro = aleatorio.nextInt(cursos);
+            for (int k = 0; k < Math.min(matriculasPorPessoa, cursos); k++) {
+                Long cursoId = cursoIds.get((primeiro + k) % cursos);
+                bloco.add(new NovaMatriculaDTO(pessoaId, cursoId, new BigDecimal("100.00"),
+                        LocalDate.now().plusDays(aleatorio.nextInt(60) - 30)));
+            }
+            if (bloco.size() >= TAMANHO_BLOCO) {
+                idsGravados(matriculaService.realizarMatriculasEmLote(bloco), matriculaIds);
+                bloco.clear();
+            }
+        }
+        if (!bloco.isEmpty()) {
+            idsGravados(matriculaService.realizarMatriculasEmLote(bloco), matriculaIds);
+        }
+        return new Dados(cursoIds, pessoaIds, matriculaIds);
+    }
+
+    /** CPF único e formatado para a pessoa de número {@code i}; os cenários usam a faixa a partir de 900.000.000. */
+    static String cpf(long i) {
+        String digitos = String.format("%011d", i);
+        return digitos.substring(0, 3) + "." + digitos.substring(3, 6) + "." + digitos.substring(6, 9) + "-" + digitos.substring(9);
+    }
+
+    private static void idsGravados(List<ResultadoLoteDTO> resultados, List<Long> ids) {
+        for (ResultadoLoteDTO resultado : resultados) {
+            if (!resultado.isSucesso()) {
+                throw new IllegalStateException("Falha ao gerar dados: " + resultado.getMensagem());
+            }
+            ids.add(resultado.getId());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.neontech.sistema_escolar.carga;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Gera uma base de pessoas para medir a busca: nomes brasileiros combinados (com acentos),
+ * e-mails derivados do nome e CPFs formatados, todos distintos.
+ * A geração roda inteira no PostgreSQL (generate_series), em um único INSERT.
+ */
+final class GeradorPessoas {
+
+    static final String[] NOMES = {
+            "José", "João", "Antônio", "Francisco", "Carlos", "Paulo", "Pedro", "Lucas", "Luiz", "Marcos",
+            "Luís", "Gabriel", "Rafael", "Daniel", "Marcelo", "Bruno", "Eduardo", "Felipe", "Raimundo", "Rodrigo",
+            "Maria", "Ana", "Francisca", "Antônia", "Adriana", "Juliana", "Márcia", "Fernanda", "Patrícia", "Aline",
+            "Sandra", "Camila", "Amanda", "Bruna", "Jéssica", "Letícia", "Júlia", "Luciana", "Vanessa", "Mariana"};
+
+    static final String[] SOBRENOMES = {
+            "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima", "Gomes",
+            "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares", "Fernandes", "Vieira", "Barbosa",
+            "Rocha", "Dias", "Nascimento", "Andrade", "Moreira", "Nunes", "Marques", "Machado", "Mendes", "Freitas",
+            "Cardoso", "Ramos", "Gonçalves", "Santana", "Teixeira", "Araújo", "Conceição", "Magalhães", "Brandão", "Falcão"};
+
+    private GeradorPessoas() {
+    }
+
+    /**
+     * Insere {@code quantidade} pessoas com IDs de 1 a {@code quantidade} e atualiza as estatísticas da tabela.
+     * O CPF da pessoa {@code i} tem os dígitos de {@link #digitosCpf(long)}.
+     */
+    static void gerar(JdbcTemplate jdbcTemplate, int quantidade) {
+        String nomes = arraySql(NOMES);
+        String sobrenomes = arraySql(SOBRENOMES);
+        jdbcTemplate.update("INSERT INTO pessoas (id, nome, cpf, email) "
+                + "SELECT i, n || ' ' || s1 || ' ' || s2, "
+                + "substr(d, 1, 3) || '.' || substr(d, 4, 3) || '.' || substr(d, 7, 3) || '-' || substr(d, 10, 2), "
+                + "texto_busca(n) || '.' || texto_busca(s2) || i || '@email.com' "
+                + "FROM (SELECT i, "
+                + nomes + "[1 + i % " + NOMES.length + "] AS n, "
+                + sobrenomes + "[1 + (i / " + NOMES.length + ") % " + SOBRENOMES.length + "] AS s1, "
+                + sobrenomes + "[1 + (i / " + (NOMES.length * SOBRENOMES.length) + " + i) % " + SOBRENOMES.length + "] AS s2, "
+                + "lpad((i * 7919 % 100000000000)::text, 11, '0') AS d "
+                + "FROM generate_series(1, ?) i) g", quantidade);
+        jdbcTemplate.execute("ANALYZE pessoas");
+    }
+
+    /** Os 11 dígitos do CPF gerado para a pessoa {@code i} (7919 é primo com 10^11, então não há repetição). */
+    static String digitosCpf(long i) {
+        return String.format("%011d", i * 7919 % 100_000_000_000L);
+    }
+
+    private static String arraySql(String[] valores) {
+        return "(ARRAY['" + String.join("','", valores) + "'])";
+    }
+}
@@ -0,0 +1,67 @@
+package com.neontech.sistema_escolar.config;
+
+import com.neontech.sistema_escolar.controller.OrcamentoSql;
+import com.neontech.sistema_escolar.repository.MonitorSql;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Testes da contagem de comandos SQL por requisição e da verificação do {@link OrcamentoSql}.
+ */
+class ContagemSqlFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MonitorSql monitorSql = new MonitorSql(meterRegistry, Duration.ofSeconds(1));
+    private final ContagemSqlFilter filtro = new ContagemSqlFilter(meterRegistry, 20, true);
+
+    @OrcamentoSql(1)
+    void endpointComUmaConsulta() {
+    }
+
+    @Test
+    void falhaQuandoOEndpointPassaDoOrcamento() throws Exception {
+        MockHttpServletRequest requisicao = requisicao();
+
+        IllegalStateException erro = assertThrows(IllegalStateException.class,
+                () -> filtro.doFilter(requisicao, new MockHttpServletResponse(), (req, resp) -> executarComandos(2)));
+        assertEquals("GET /api/teste/{id} executou 2 comandos SQL (orçamento do endpoint: 1)", erro.getMessage());
+    }
+
+    @Test
+    void registraOsComandosDaRequisicaoDentroDoOrcamento() throws Exception {
+        MockHttpServletRequest requisicao = requisicao();
+
+        assertDoesNotThrow(() -> filtro.doFilter(requisicao, new MockHttpServletResponse(),
+                (req, resp) -> executarComandos(1)));
+        assertEquals(1, meterRegistry.get("sistema_escolar.http.sql_por_requisicao")
+                .tags("method", "GET", "uri", "/api/teste/{id}").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("sistema_escolar.sql").timer().count());
+    }
+
+    private MockHttpServletRequest requisicao() throws NoSuchMethodException {
+        MockHttpServletRequest requisicao = new MockHttpServletRequest("GET", "/api/teste/1");
+        requisicao.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/teste/{id}");
+        requisicao.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                new HandlerMethod(this, getClass().getDeclaredMethod("endpointComUmaConsulta")));
+        return requisicao;
+    }
+
+    // Simula o proxy do DataSource avisando o monitor de cada comando executado
+    private void executarComandos(int quantidade) {
+        for (int i = 0; i < quantidade; i++) {
+            monitorSql.afterQuery(new ExecutionInfo(), List.of());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.neontech.sistema_escolar.config;
+
+import com.neontech.sistema_escolar.dto.MatriculaDTO;
+import com.neontech.sistema_escolar.dto.NovaMatriculaDTO;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import com.neontech.sistema_escolar.repository.MatriculaRepository;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.projection.TargetAware;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes das dicas registradas para a imagem nativa.
+ */
+class DicasExecucaoNativaTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    DicasExecucaoNativaTest() {
+        new DicasExecucaoNativa().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registraOsDtosDasConsultasEDoJackson() throws Exception {
+        // Construtor "achatado" chamado pelo Hibernate no select new
+        assertTrue(RuntimeHintsPredicates.reflection().onConstructor(MatriculaDTO.class.getConstructor(Long.class,
+                Long.class, String.class, String.class, LocalDate.class, String.class, String.class,
+                Long.class, String.class, String.class, BigDecimal.class, Integer.class, boolean.class,
+                LocalDate.class, BigDecimal.class, StatusPagamento.class, LocalDate.class, Long.class))
+                .test(hints));
+        // Setter gerado pelo Lombok, usado pelo Jackson na leitura do corpo
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(NovaMatriculaDTO.class.getMethod("setAlunoId", Long.class)).test(hints));
+    }
+
+    @Test
+    void registraOsProxiesDasProjecoesEDoDatasourceProxy() {
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(MatriculaRepository.SituacaoMatricula.class,
+                TargetAware.class, SpringProxy.class, DecoratingProxy.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(ProxyJdbcObject.class, PreparedStatement.class)
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("ehcache.xml").test(hints));
+    }
+}
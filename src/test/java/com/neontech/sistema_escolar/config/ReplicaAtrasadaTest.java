@@ -0,0 +1,165 @@
+package com.neontech.sistema_escolar.config;
+
+import com.neontech.sistema_escolar.model.Curso;
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.repository.CursoRepository;
+import com.neontech.sistema_escolar.repository.PessoaRepository;
+import com.neontech.sistema_escolar.repository.ResumoFinanceiroCursoRepository;
+import com.neontech.sistema_escolar.service.CursoService;
+import com.neontech.sistema_escolar.service.PessoaService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes com uma réplica atrasada: a "réplica" é um segundo banco H2 em memória, copiado do principal
+ * só quando o teste pede. Depois de uma alteração no principal, a réplica continua com a versão anterior,
+ * e nada lido dela pode ficar guardado nos caches.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaAtrasadaTest.PRINCIPAL,
+        "sistema-escolar.datasource.leitura.jdbc-url=" + ReplicaAtrasadaTest.REPLICA
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReplicaAtrasadaTest {
+
+    static final String PRINCIPAL =
+            "jdbc:h2:mem:principal_replicado;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+    static final String REPLICA =
+            "jdbc:h2:mem:replica_atrasada;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CursoService cursoService;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private ResumoFinanceiroCursoRepository resumoFinanceiroCursoRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Curso curso;
+
+    private Pessoa pessoa;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        curso = cursoService.salvar(new Curso(null, "Fotografia", null, new BigDecimal("200.00"), 40, true, null));
+        pessoa = pessoaService.salvar(new Pessoa(null, "Lara Nunes", "454.545.454-54", null, null, null, null));
+        replicar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pessoaRepository.deleteAll();
+        cursoRepository.deleteAll();
+        resumoFinanceiroCursoRepository.deleteAll();
+    }
+
+    @Test
+    void cachesDeCursosSaoCarregadosDoPrincipal() throws Exception {
+        curso.setNome("Fotografia Digital");
+        cursoService.salvar(curso);
+        limparCaches();
+
+        // A réplica ainda não recebeu a alteração
+        assertEquals("Fotografia", nomeDoCursoNaListagem());
+        assertFalse(cacheHibernate().containsEntity(Curso.class, curso.getId()));
+
+        assertEquals("Fotografia Digital", cursoService.buscarPorId(curso.getId()).orElseThrow().getNome());
+        assertEquals("Fotografia Digital", cursoService.listarAtivos().get(0).getNome());
+        mockMvc.perform(get("/api/cursos/ativos"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Fotografia Digital")));
+    }
+
+    @Test
+    void buscaPorCpfNaoGuardaPessoaLidaDaReplica() {
+        pessoa.setNome("Lara Nunes Prado");
+        pessoaService.salvar(pessoa);
+        limparCaches();
+
+        // A réplica ainda não recebeu a alteração, e o que veio dela não entra no cache de segundo nível
+        assertEquals("Lara Nunes", pessoaService.buscarPorId(pessoa.getId()).orElseThrow().getNome());
+        assertFalse(cacheHibernate().containsEntity(Pessoa.class, pessoa.getId()));
+
+        assertEquals("Lara Nunes Prado", pessoaService.buscarPorCpf("454.545.454-54").orElseThrow().getNome());
+        assertEquals("Lara Nunes Prado", pessoaService.buscarPorCpf("454.545.454-54").orElseThrow().getNome());
+        assertEquals("Lara Nunes Prado", pessoaService.buscarPorId(pessoa.getId()).orElseThrow().getNome());
+    }
+
+    private String nomeDoCursoNaListagem() {
+        return cursoService.listarTodos().stream()
+                .filter(listado -> listado.getId().equals(curso.getId()))
+                .findFirst().orElseThrow().getNome();
+    }
+
+    // Simula a expiração: os caches ficam vazios, como se a próxima leitura fosse a primeira
+    private void limparCaches() {
+        cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+        cacheHibernate().evictAll();
+    }
+
+    private Cache cacheHibernate() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    // Copia o principal inteiro (esquema e dados) para a réplica, que daí em diante fica parada nesse ponto
+    private static void replicar() throws SQLException {
+        List<String> comandos = new ArrayList<>();
+        try (Connection principal = DriverManager.getConnection(PRINCIPAL, "sa", "");
+             Statement script = principal.createStatement();
+             ResultSet linhas = script.executeQuery("SCRIPT")) {
+            while (linhas.next()) {
+                comandos.add(linhas.getString(1));
+            }
+        }
+        try (Connection replica = DriverManager.getConnection(REPLICA, "sa", "");
+             Statement comando = replica.createStatement()) {
+            comando.execute("DROP ALL OBJECTS");
+            for (String sql : comandos) {
+                comando.execute(sql);
+            }
+        }
+    }
+}
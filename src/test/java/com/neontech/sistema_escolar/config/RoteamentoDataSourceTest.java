@@ -0,0 +1,103 @@
+package com.neontech.sistema_escolar.config;
+
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.repository.PessoaRepository;
+import com.neontech.sistema_escolar.service.MatriculaService;
+import com.neontech.sistema_escolar.service.PessoaService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do roteamento entre os pools de escrita e de leitura. A "réplica" é o mesmo banco H2 em memória,
+ * acessado por um segundo pool: o que se verifica é por qual pool cada comando passou.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:roteamento;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "sistema-escolar.datasource.leitura.jdbc-url=${spring.datasource.url}"
+})
+@ActiveProfiles("test")
+class RoteamentoDataSourceTest {
+
+    private static final String ESCRITA = "dataSourceEscrita";
+    private static final String LEITURA = "dataSourceLeitura";
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private MatriculaService matriculaService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        pessoaRepository.deleteAll();
+    }
+
+    @Test
+    void escritasVaoAoPrincipalInclusiveAsLeiturasDaMesmaTransacao() {
+        long selectsLeitura = comandos(LEITURA, "select");
+        long insertsEscrita = comandos(ESCRITA, "insert");
+        long selectsEscrita = comandos(ESCRITA, "select");
+
+        pessoaService.salvar(new Pessoa(null, "Rita Lopes", "777.777.777-77", LocalDate.of(1999, 9, 9),
+                "rita@email.com", null, null));
+
+        assertEquals(insertsEscrita + 1, comandos(ESCRITA, "insert"));
+        assertTrue(comandos(ESCRITA, "select") > selectsEscrita); // Verificação do CPF, dentro da escrita
+        assertEquals(selectsLeitura, comandos(LEITURA, "select"));
+        assertEquals(0, comandos(LEITURA, "insert"));
+    }
+
+    @Test
+    void consultasDosServicosVaoAReplica() {
+        Long alunoId = pessoaService.salvar(new Pessoa(null, "Caio Reis", "888.888.888-88", null, null, null, null))
+                .getId();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAll();
+        long selectsLeitura = comandos(LEITURA, "select");
+        long selectsEscrita = comandos(ESCRITA, "select");
+
+        assertTrue(pessoaService.buscarPorId(alunoId).isPresent());
+        assertTrue(matriculaService.listarMatriculasPorAluno(alunoId).isEmpty());
+
+        assertEquals(selectsLeitura + 2, comandos(LEITURA, "select"));
+        assertEquals(selectsEscrita, comandos(ESCRITA, "select"));
+    }
+
+    @Test
+    void consultasQueAlimentamCachesVaoAoPrincipal() {
+        pessoaService.salvar(new Pessoa(null, "Davi Rocha", "999.111.999-11", null, null, null, null));
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAll();
+        long selectsLeitura = comandos(LEITURA, "select");
+        long selectsEscrita = comandos(ESCRITA, "select");
+
+        assertTrue(pessoaService.buscarPorCpf("999.111.999-11").isPresent());
+
+        assertEquals(selectsEscrita + 1, comandos(ESCRITA, "select"));
+        assertEquals(selectsLeitura, comandos(LEITURA, "select"));
+    }
+
+    private long comandos(String dataSource, String tipo) {
+        return meterRegistry.find("sistema_escolar.sql").tag("datasource", dataSource).tag("tipo", tipo)
+                .timers().stream().mapToLong(Timer::count).sum();
+    }
+}
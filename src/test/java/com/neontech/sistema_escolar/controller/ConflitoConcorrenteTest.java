@@ -0,0 +1,136 @@
+package com.neontech.sistema_escolar.controller;
+
+import com.neontech.sistema_escolar.model.Curso;
+import com.neontech.sistema_escolar.model.Matricula;
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import com.neontech.sistema_escolar.repository.CursoRepository;
+import com.neontech.sistema_escolar.repository.MatriculaRepository;
+import com.neontech.sistema_escolar.repository.PessoaRepository;
+import com.neontech.sistema_escolar.repository.ResumoFinanceiroCursoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes das importações em lote quando outra transação grava a mesma chave única entre a verificação
+ * em conjunto e o INSERT. A gravação concorrente fica pendente até a importação chegar ao banco,
+ * e só então é confirmada: a importação esbarra na restrição única e deve responder 409.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConflitoConcorrenteTest {
+
+    // Tempo para a importação passar da verificação e ficar esperando a transação concorrente
+    private static final long ESPERA_CONFIRMACAO_MS = 500;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private ResumoFinanceiroCursoRepository resumoFinanceiroCursoRepository;
+
+    @AfterEach
+    void tearDown() {
+        matriculaRepository.deleteAll();
+        pessoaRepository.deleteAll();
+        cursoRepository.deleteAll();
+        resumoFinanceiroCursoRepository.deleteAll();
+    }
+
+    @Test
+    void importacaoDePessoasRespondeConflitoQuandoOCpfEGravadoAoMesmoTempo() throws Exception {
+        CompletableFuture<Void> concorrente = gravarEmTransacaoPendente(() -> pessoaRepository.saveAndFlush(
+                new Pessoa(null, "Outro Cadastro", "999.999.999-99", null, null, null, null)));
+
+        mockMvc.perform(post("/api/pessoas/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"nome\":\"Importada\",\"cpf\":\"999.999.999-99\"}]"))
+                .andExpect(status().isConflict());
+
+        concorrente.get(5, TimeUnit.SECONDS);
+        assertEquals(1, pessoaRepository.count());
+    }
+
+    @Test
+    void importacaoCsvRespondeConflitoQuandoOCpfEGravadoAoMesmoTempo() throws Exception {
+        CompletableFuture<Void> concorrente = gravarEmTransacaoPendente(() -> pessoaRepository.saveAndFlush(
+                new Pessoa(null, "Outro Cadastro", "999.999.999-98", null, null, null, null)));
+        MockMultipartFile arquivo = new MockMultipartFile("arquivo", "pessoas.csv", "text/csv",
+                "nome;cpf\nImportada;999.999.999-98\n".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/api/pessoas/lote/csv").file(arquivo))
+                .andExpect(status().isConflict());
+
+        concorrente.get(5, TimeUnit.SECONDS);
+        assertEquals(1, pessoaRepository.count());
+    }
+
+    @Test
+    void matriculasEmLoteRespondemConflitoQuandoOParEGravadoAoMesmoTempo() throws Exception {
+        Pessoa aluno = pessoaRepository.save(new Pessoa(null, "Bruna Melo", "999.999.999-97", null, null, null, null));
+        Curso curso = cursoRepository.save(new Curso(null, "Kotlin", null, new BigDecimal("150.00"), 40, true, null));
+        CompletableFuture<Void> concorrente = gravarEmTransacaoPendente(() -> matriculaRepository.saveAndFlush(
+                new Matricula(null, aluno, curso, LocalDate.now(), new BigDecimal("150.00"), StatusPagamento.PENDENTE,
+                        LocalDate.now().plusDays(30), null)));
+
+        mockMvc.perform(post("/api/matriculas/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"alunoId\":" + aluno.getId() + ",\"cursoId\":" + curso.getId()
+                                + ",\"valorCobrado\":150.00}]"))
+                .andExpect(status().isConflict());
+
+        concorrente.get(5, TimeUnit.SECONDS);
+        assertEquals(1, matriculaRepository.count());
+    }
+
+    // Grava em outra thread e segura o commit por alguns instantes depois que a gravação chegou ao banco
+    private CompletableFuture<Void> gravarEmTransacaoPendente(Runnable gravacao) throws InterruptedException {
+        CountDownLatch gravado = new CountDownLatch(1);
+        CompletableFuture<Void> concorrente = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    gravacao.run();
+                    gravado.countDown();
+                    try {
+                        Thread.sleep(ESPERA_CONFIRMACAO_MS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertTrue(gravado.await(5, TimeUnit.SECONDS));
+        return concorrente;
+    }
+}
@@ -0,0 +1,156 @@
+package com.neontech.sistema_escolar.controller;
+
+import com.neontech.sistema_escolar.model.Curso;
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.repository.CursoRepository;
+import com.neontech.sistema_escolar.repository.PessoaRepository;
+import com.neontech.sistema_escolar.service.CursoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes das leituras condicionais (ETag / Last-Modified e 304 Not Modified) de cursos e pessoas
+ * e da listagem de cursos ativos servida já serializada.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LeituraCondicionalTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CursoService cursoService;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    private Curso curso;
+
+    private Pessoa pessoa;
+
+    @BeforeEach
+    void setUp() {
+        // Pelo serviço, para os caches de cursos serem limpos entre os testes
+        curso = cursoService.salvar(new Curso(null, "Kotlin", null, new BigDecimal("200.00"), 30, true, null));
+        cursoService.salvar(new Curso(null, "Go", null, new BigDecimal("250.00"), 30, true, null));
+        pessoa = pessoaRepository.save(new Pessoa(null, "Lia Prado", "444.444.444-44",
+                LocalDate.of(1995, 4, 4), "lia@email.com", null, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pessoaRepository.deleteAll();
+        cursoRepository.findAll().forEach(c -> cursoService.excluir(c.getId()));
+    }
+
+    @Test
+    void cursosAtivosComEtagAtualRespondemNotModified() throws Exception {
+        MvcResult primeira = mockMvc.perform(get("/api/cursos/ativos"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public"))
+                .andReturn();
+        String etag = primeira.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/api/cursos/ativos").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Desativar um curso muda a lista: o ETag antigo não vale mais
+        mockMvc.perform(patch("/api/cursos/{id}/status", curso.getId()).param("ativo", "false"))
+                .andExpect(status().isOk());
+        String novoEtag = mockMvc.perform(get("/api/cursos/ativos").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, novoEtag);
+    }
+
+    @Test
+    void cursosAtivosSaoServidosDoCacheEmGzipERefeitosAposAlteracao() throws Exception {
+        MvcResult comprimida = mockMvc.perform(get("/api/cursos/ativos").header(HttpHeaders.ACCEPT_ENCODING, "gzip, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn();
+        String json = mockMvc.perform(get("/api/cursos/ativos"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(json, descomprimir(comprimida.getResponse().getContentAsByteArray()));
+        assertTrue(comprimida.getResponse().getHeader(HttpHeaders.ETAG).endsWith("-gzip\""));
+
+        // O JSON em cache é refeito depois de um curso novo
+        mockMvc.perform(post("/api/cursos").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\": \"Rust\", \"valor\": 300.00, \"cargaHoraria\": 40}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/cursos/ativos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[2].nome").value("Rust"));
+    }
+
+    @Test
+    void pessoaComEtagOuDataAtualRespondeNotModifiedAteSerAlterada() throws Exception {
+        MvcResult primeira = mockMvc.perform(get("/api/pessoas/{id}", pessoa.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn();
+        String etag = primeira.getResponse().getHeader(HttpHeaders.ETAG);
+        String ultimaAlteracao = primeira.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+        assertNotNull(etag);
+        assertNotNull(ultimaAlteracao);
+
+        mockMvc.perform(get("/api/pessoas/{id}", pessoa.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/pessoas/{id}", pessoa.getId()).header(HttpHeaders.IF_MODIFIED_SINCE, ultimaAlteracao))
+                .andExpect(status().isNotModified());
+
+        String corpo = String.format("{\"id\": %d, \"nome\": \"Lia Prado Lima\", \"cpf\": \"444.444.444-44\"}",
+                pessoa.getId());
+        mockMvc.perform(put("/api/pessoas/{id}", pessoa.getId()).contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/pessoas/{id}", pessoa.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    private static String descomprimir(byte[] gzip) throws IOException {
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.neontech.sistema_escolar.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neontech.sistema_escolar.dto.NovaMatriculaDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks da leitura do corpo de {@code POST /api/matriculas}: a leitura direta para {@link NovaMatriculaDTO},
+ * usada pelo endpoint, comparada com o caminho anterior (JSON para {@code Map<String, Object>}
+ * e conversão campo a campo com {@code toString()}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeituraMatriculaBenchmark {
+
+    private static final byte[] CORPO = """
+            {"alunoId": 10, "cursoId": 20, "valorCobrado": 350.00, "dataVencimento": "2025-04-10"}
+            """.getBytes();
+
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public NovaMatriculaDTO lerComoMapa() throws IOException {
+        Map<String, Object> dados = objectMapper.readValue(CORPO, new TypeReference<>() {
+        });
+        return new NovaMatriculaDTO(Long.valueOf(dados.get("alunoId").toString()),
+                Long.valueOf(dados.get("cursoId").toString()),
+                new BigDecimal(dados.get("valorCobrado").toString()),
+                LocalDate.parse(dados.get("dataVencimento").toString()));
+    }
+
+    @Benchmark
+    public NovaMatriculaDTO lerComoDto() throws IOException {
+        return objectMapper.readValue(CORPO, NovaMatriculaDTO.class);
+    }
+}
@@ -0,0 +1,237 @@
+package com.neontech.sistema_escolar.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neontech.sistema_escolar.dto.MatriculaDTO;
+import com.neontech.sistema_escolar.dto.NovaMatriculaDTO;
+import com.neontech.sistema_escolar.model.Curso;
+import com.neontech.sistema_escolar.model.Matricula;
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import com.neontech.sistema_escolar.repository.CursoRepository;
+import com.neontech.sistema_escolar.repository.MatriculaRepository;
+import com.neontech.sistema_escolar.repository.MonitorSql;
+import com.neontech.sistema_escolar.repository.PessoaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes dos endpoints de matrícula via MockMvc.
+ * Os dados são gravados fora de transação de teste porque as respostas em streaming
+ * são escritas em outra thread, com a sua própria transação.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MatriculaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MatriculaController matriculaController;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    private Curso curso;
+
+    private Pessoa primeiroAluno;
+
+    private Matricula primeiraMatricula;
+
+    private Matricula matriculaPaga;
+
+    @BeforeEach
+    void setUp() {
+        curso = cursoRepository.save(new Curso(null, "Java, Spring e JPA", "Curso completo",
+                new BigDecimal("500.00"), 80, true, null));
+        LocalDate vencimento = LocalDate.of(2025, 3, 10);
+        for (int i = 1; i <= 4; i++) {
+            Pessoa aluno = pessoaRepository.save(new Pessoa(null, "Aluno " + i, "111.111.111-1" + i,
+                    LocalDate.of(2000, 1, i), "aluno" + i + "@email.com", null, null));
+            StatusPagamento status = i % 2 == 0 ? StatusPagamento.PAGO : StatusPagamento.PENDENTE;
+            Matricula matricula = matriculaRepository.save(new Matricula(null, aluno, curso, LocalDate.of(2025, 2, 1),
+                    new BigDecimal("450.00"), status, vencimento.plusMonths(i), null));
+            if (i == 1) {
+                primeiroAluno = aluno;
+                primeiraMatricula = matricula;
+            } else if (i == 2) {
+                matriculaPaga = matricula;
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        matriculaRepository.deleteAll();
+        pessoaRepository.deleteAll();
+        cursoRepository.deleteAll();
+    }
+
+    @Test
+    void exportarEmNdjsonAplicaOsFiltros() throws Exception {
+        MvcResult inicio = mockMvc.perform(get("/api/matriculas/exportacao")
+                        .param("status", "PENDENTE")
+                        .param("vencimentoAte", "2025-05-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String corpo = mockMvc.perform(asyncDispatch(inicio))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Alunos 1 e 3 estão pendentes, mas o vencimento do aluno 3 (junho) fica fora do intervalo
+        String[] linhas = corpo.split("\n");
+        assertEquals(1, linhas.length);
+        assertTrue(linhas[0].startsWith("{"));
+        assertTrue(linhas[0].contains("\"nome\":\"Aluno 1\""));
+        assertTrue(linhas[0].contains("\"statusPagamento\":\"PENDENTE\""));
+    }
+
+    @Test
+    void exportarEmCsvEscapaValoresComVirgula() throws Exception {
+        MvcResult inicio = mockMvc.perform(get("/api/matriculas/exportacao").param("formato", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String corpo = mockMvc.perform(asyncDispatch(inicio))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] linhas = corpo.split("\n");
+        assertEquals(5, linhas.length); // cabeçalho + 4 matrículas
+        assertTrue(linhas[0].startsWith("id,alunoId,alunoNome"));
+        assertTrue(linhas[1].contains(",\"Java, Spring e JPA\","));
+    }
+
+    @Test
+    void realizarMatriculaDuplicadaRetornaConflict() throws Exception {
+        String corpo = String.format("{\"alunoId\": %d, \"cursoId\": %d, \"valorCobrado\": 450.00, \"dataVencimento\": \"2025-04-10\"}",
+                primeiroAluno.getId(), curso.getId());
+
+        mockMvc.perform(post("/api/matriculas").contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Aluno já matriculado neste curso."));
+        assertEquals(4, matriculaRepository.count());
+    }
+
+    @Test
+    void realizarMatriculaSemValorCobradoRetornaBadRequest() throws Exception {
+        Pessoa aluno = pessoaRepository.save(new Pessoa(null, "Aluno 5", "111.111.111-15",
+                LocalDate.of(2000, 1, 5), "aluno5@email.com", null, null));
+        String corpo = String.format("{\"alunoId\": %d, \"cursoId\": %d, \"dataVencimento\": \"2025-04-10\"}",
+                aluno.getId(), curso.getId());
+
+        mockMvc.perform(post("/api/matriculas").contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("alunoId, cursoId e valorCobrado são obrigatórios."));
+        assertEquals(4, matriculaRepository.count());
+    }
+
+    @Test
+    void atualizarStatusPagamentoSemStatusRetornaBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/matriculas/{id}/status-pagamento", primeiraMatricula.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("status é obrigatório."));
+        assertEquals(StatusPagamento.PENDENTE,
+                matriculaRepository.findById(primeiraMatricula.getId()).orElseThrow().getStatusPagamento());
+    }
+
+    @Test
+    void realizarMatriculaRetornaDtoSemConsultarOBancoNaSerializacao() throws Exception {
+        Pessoa aluno = pessoaRepository.save(new Pessoa(null, "Aluno 5", "111.111.111-15",
+                LocalDate.of(2000, 1, 5), "aluno5@email.com", null, null));
+
+        ResponseEntity<?> resposta = matriculaController.realizarMatricula(
+                new NovaMatriculaDTO(aluno.getId(), curso.getId(), new BigDecimal("450.00"), LocalDate.of(2025, 4, 10)));
+
+        // Fora da transação: um proxy preguiçoso na resposta faria a serialização consultar o banco (ou falhar)
+        MonitorSql.iniciar();
+        String corpo = objectMapper.writeValueAsString(resposta.getBody());
+        assertEquals(0, MonitorSql.encerrar());
+
+        assertEquals(HttpStatus.CREATED, resposta.getStatusCode());
+        assertEquals("\"0\"", resposta.getHeaders().getETag());
+        assertInstanceOf(MatriculaDTO.class, resposta.getBody());
+        assertTrue(corpo.contains("\"nome\":\"Aluno 5\""));
+        assertTrue(corpo.contains("\"nome\":\"Java, Spring e JPA\""));
+        assertFalse(corpo.contains("hibernateLazyInitializer"));
+    }
+
+    @Test
+    void atualizarStatusComIfMatchDaVersaoLidaDevolveONovoEtag() throws Exception {
+        String etag = mockMvc.perform(get("/api/matriculas/{id}", primeiraMatricula.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(patch("/api/matriculas/{id}/status-pagamento", primeiraMatricula.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"status\": \"PAGO\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.statusPagamento").value("PAGO"));
+    }
+
+    @Test
+    void atualizarStatusComIfMatchDesatualizadoRetornaPreconditionFailed() throws Exception {
+        mockMvc.perform(patch("/api/matriculas/{id}/status-pagamento", primeiraMatricula.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"7\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"status\": \"PAGO\"}"))
+                .andExpect(status().isPreconditionFailed());
+        assertEquals(StatusPagamento.PENDENTE,
+                matriculaRepository.findById(primeiraMatricula.getId()).orElseThrow().getStatusPagamento());
+    }
+
+    @Test
+    void atualizarStatusComTransicaoNaoPermitidaRetornaConflict() throws Exception {
+        mockMvc.perform(patch("/api/matriculas/{id}/status-pagamento", matriculaPaga.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"status\": \"PENDENTE\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Não é permitido mudar o status de pagamento de PAGO para PENDENTE."));
+    }
+
+    @Test
+    void exportarComFormatoDesconhecidoRetornaBadRequest() throws Exception {
+        mockMvc.perform(get("/api/matriculas/exportacao").param("formato", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,108 @@
+package com.neontech.sistema_escolar.controller;
+
+import com.neontech.sistema_escolar.model.Curso;
+import com.neontech.sistema_escolar.model.Matricula;
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import com.neontech.sistema_escolar.repository.CursoRepository;
+import com.neontech.sistema_escolar.repository.MatriculaRepository;
+import com.neontech.sistema_escolar.repository.PessoaRepository;
+import com.neontech.sistema_escolar.service.MatriculaServiceImpl;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes das métricas publicadas pela aplicação: tempos dos serviços, comandos SQL por requisição
+ * e a exposição para o Prometheus (com as métricas do Hibernate e do pool de conexões).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    private Pessoa aluno;
+
+    @BeforeEach
+    void setUp() {
+        Curso curso = cursoRepository.save(new Curso(null, "Java", null, new BigDecimal("300.00"), 40, true, null));
+        aluno = pessoaRepository.save(new Pessoa(null, "Aluno", "222.222.222-22", null, null, null, null));
+        matriculaRepository.save(new Matricula(null, aluno, curso, LocalDate.of(2025, 2, 1),
+                new BigDecimal("300.00"), StatusPagamento.PENDENTE, LocalDate.of(2025, 3, 10), null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        matriculaRepository.deleteAll();
+        pessoaRepository.deleteAll();
+        cursoRepository.deleteAll();
+    }
+
+    @Test
+    void registraTempoDoServicoEComandosSqlDaRequisicao() throws Exception {
+        mockMvc.perform(get("/api/matriculas/aluno/{alunoId}", aluno.getId()))
+                .andExpect(status().isOk());
+
+        Timer servico = meterRegistry.find("sistema_escolar.servico")
+                .tags("class", MatriculaServiceImpl.class.getName(), "method", "listarMatriculasPorAluno")
+                .timer();
+        assertNotNull(servico);
+        assertTrue(servico.count() >= 1);
+
+        DistributionSummary sql = meterRegistry.find("sistema_escolar.http.sql_por_requisicao")
+                .tags("method", "GET", "uri", "/api/matriculas/aluno/{alunoId}")
+                .summary();
+        assertNotNull(sql);
+        assertTrue(sql.count() >= 1);
+        assertEquals(1, sql.max()); // Uma consulta, com aluno e curso no mesmo SELECT
+    }
+
+    @Test
+    void expoeMetricasParaOPrometheus() throws Exception {
+        mockMvc.perform(get("/api/matriculas/aluno/{alunoId}", aluno.getId()))
+                .andExpect(status().isOk());
+
+        String metricas = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(metricas.contains("sistema_escolar_servico_seconds_count"));
+        assertTrue(metricas.contains("sistema_escolar_http_sql_por_requisicao_count"));
+        assertTrue(metricas.contains("sistema_escolar_sql_seconds_count{datasource=\"dataSourceEscrita\",tipo=\"select\"}"));
+        assertTrue(metricas.contains("hibernate_statements_total"));
+        assertTrue(metricas.contains("hikaricp_connections_active"));
+    }
+}
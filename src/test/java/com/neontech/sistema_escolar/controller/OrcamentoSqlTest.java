@@ -0,0 +1,102 @@
+package com.neontech.sistema_escolar.controller;
+
+import com.neontech.sistema_escolar.model.Curso;
+import com.neontech.sistema_escolar.model.Matricula;
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import com.neontech.sistema_escolar.repository.CursoRepository;
+import com.neontech.sistema_escolar.repository.MatriculaRepository;
+import com.neontech.sistema_escolar.repository.PessoaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Chama os endpoints de leitura com {@link OrcamentoSql} sobre vários alunos e matrículas.
+ * No perfil de testes uma requisição acima do orçamento lança exceção, então basta cada chamada responder 200.
+ * A busca de pessoas usa funções do PostgreSQL e fica de fora (ver {@code BuscaPessoasPostgresTest}).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrcamentoSqlTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    private Pessoa aluno;
+
+    private Curso curso;
+
+    private Matricula matricula;
+
+    @BeforeEach
+    void setUp() {
+        List<Curso> cursos = cursoRepository.saveAll(List.of(
+                new Curso(null, "Java", null, new BigDecimal("300.00"), 40, true, null),
+                new Curso(null, "Spring", null, new BigDecimal("400.00"), 40, true, null)));
+        curso = cursos.get(0);
+        for (int i = 1; i <= 5; i++) {
+            Pessoa pessoa = pessoaRepository.save(new Pessoa(null, "Aluno " + i, "333.333.333-3" + i, null, null, null, null));
+            for (Curso c : cursos) {
+                Matricula nova = matriculaRepository.save(new Matricula(null, pessoa, c, LocalDate.of(2025, 2, 1),
+                        c.getValor(), StatusPagamento.PENDENTE, LocalDate.of(2025, 3, i), null));
+                if (matricula == null) {
+                    aluno = pessoa;
+                    matricula = nova;
+                }
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        matriculaRepository.deleteAll();
+        pessoaRepository.deleteAll();
+        cursoRepository.deleteAll();
+    }
+
+    @Test
+    void endpointsDeLeituraRespeitamOOrcamentoDeSql() throws Exception {
+        List<String> caminhos = List.of(
+                "/api/matriculas/" + matricula.getId(),
+                "/api/matriculas/aluno/" + aluno.getId(),
+                "/api/matriculas/pagina",
+                "/api/pessoas/" + aluno.getId(),
+                "/api/pessoas/cpf/" + aluno.getCpf(),
+                "/api/pessoas/pagina",
+                "/api/cursos/" + curso.getId(),
+                "/api/cursos/ativos",
+                "/api/cursos/pagina",
+                "/api/relatorios/financeiro/cursos",
+                "/api/relatorios/financeiro/cursos/acumulado",
+                "/api/relatorios/financeiro/mensal");
+        // Duas vezes: a segunda pode ser atendida pelos caches, a primeira não
+        for (int vez = 0; vez < 2; vez++) {
+            for (String caminho : caminhos) {
+                mockMvc.perform(get(caminho)).andExpect(status().isOk());
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.neontech.sistema_escolar.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Teste da resposta com o pool de conexões esgotado: pool de uma conexão, ocupada pelo próprio teste,
+ * e timeout curto do Hikari. A requisição só pede a conexão no primeiro comando SQL, já dentro da transação.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pool_esgotado;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=300"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PoolEsgotadoTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("dataSourceEscrita")
+    private DataSource dataSourceEscrita;
+
+    @Test
+    void poolEsgotadoRespondeServicoIndisponivelComRetryAfter() throws Exception {
+        try (Connection ocupada = dataSourceEscrita.getConnection()) {
+            mockMvc.perform(get("/api/pessoas/cpf/{cpf}", "000.000.000-00"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.neontech.sistema_escolar.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks da montagem de {@link MatriculaDTO} a partir das colunas da consulta e da serialização
+ * em JSON das respostas mais frequentes (uma matrícula e uma lista de pessoas).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeamentoDtoBenchmark {
+
+    private static final LocalDate DATA = LocalDate.of(2025, 3, 10);
+
+    private ObjectMapper objectMapper;
+    private MatriculaDTO matricula;
+    private List<Pessoa> pessoas;
+
+    @Setup
+    public void preparar() {
+        // Mesma configuração do ObjectMapper da aplicação (datas ISO, módulos do Java 8)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        matricula = montarMatricula();
+        pessoas = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            pessoas.add(new Pessoa((long) i, "Pessoa " + i, String.format("000.000.%03d-00", i),
+                    DATA.minusYears(20), "pessoa" + i + "@email.com", "(11) 99999-0000", null));
+        }
+    }
+
+    /** Construtor "achatado" usado pelas consultas JPQL (é ele que converte cada linha em DTO). */
+    @Benchmark
+    public MatriculaDTO montarMatricula() {
+        return new MatriculaDTO(1L,
+                10L, "Ana Souza", "111.111.111-11", DATA.minusYears(20), "ana@email.com", null,
+                20L, "Java Básico", "Introdução à linguagem", new BigDecimal("350.00"), 40, true,
+                DATA, new BigDecimal("350.00"), StatusPagamento.PENDENTE, DATA.plusDays(30), 0L);
+    }
+
+    @Benchmark
+    public String serializarMatricula() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(matricula);
+    }
+
+    @Benchmark
+    public byte[] serializarListaDePessoas() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pessoas);
+    }
+}
@@ -0,0 +1,219 @@
+package com.neontech.sistema_escolar.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes de regressão dos planos de execução das consultas dos repositórios, em um PostgreSQL real
+ * com o esquema criado pelas migrações do Flyway.
+ * <p>
+ * A base é populada com algumas centenas de milhares de matrículas e cada consulta é executada pelo
+ * repositório; o SQL gerado pelo Hibernate passa então por {@code EXPLAIN}, e o teste falha se o plano
+ * varrer uma tabela inteira (Seq Scan), o que indica um índice ausente ou que deixou de ser usado.
+ * <p>
+ * Precisa de Docker; sem ele os testes são ignorados.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.neontech.sistema_escolar.repository.SqlCapturado")
+@ActiveProfiles({"test", "postgres"})
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PlanoConsultasPostgresTest {
+
+    private static final int PESSOAS = 100_000;
+    private static final int CURSOS = 20_000;
+    private static final LocalDate INICIO = LocalDate.of(2024, 1, 1);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    void popularBase() {
+        // IDs explícitos para as consultas saberem quem existe; as linhas seguem a ordem de cadastro,
+        // como em produção: os cursos ativos e as matrículas em aberto são os mais recentes.
+        jdbcTemplate.update("INSERT INTO pessoas (id, nome, cpf) "
+                + "SELECT i, 'Pessoa ' || i, lpad(i::text, 11, '0') FROM generate_series(1, ?) i", PESSOAS);
+        jdbcTemplate.update("INSERT INTO cursos (id, nome, valor, carga_horaria, ativo) "
+                + "SELECT i, 'Curso ' || i, 100.00, 40, i > ? FROM generate_series(1, ?) i", CURSOS - 400, CURSOS);
+        // Três matrículas por pessoa: 90% pagas, 2% atrasadas e 8% pendentes
+        jdbcTemplate.update("INSERT INTO matriculas (pessoa_id, curso_id, data_matricula, valor_cobrado, "
+                + "status_pagamento, data_vencimento) "
+                + "SELECT p, (p * 3 + k) % ? + 1, DATE '2024-01-01' + p / 150, 100.00, "
+                + "CASE WHEN p > 92000 THEN 'PENDENTE' WHEN p > 90000 THEN 'ATRASADO' ELSE 'PAGO' END, "
+                + "DATE '2024-01-01' + p / 150 + 30 "
+                + "FROM generate_series(1, ?) p, generate_series(0, 2) k ORDER BY p, k", CURSOS, PESSOAS);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void pessoaPorCpf() {
+        assertSemSeqScan(() -> pessoaRepository.findByCpf("00000012345"), "00000012345");
+    }
+
+    @Test
+    void cursosAtivos() {
+        assertSemSeqScan(() -> cursoRepository.findByAtivoTrue());
+    }
+
+    @Test
+    void matriculasPorAluno() {
+        assertSemSeqScan(() -> matriculaRepository.findByAlunoId(4242L), 4242L);
+    }
+
+    @Test
+    void matriculasPorAlunoEmDTO() {
+        assertSemSeqScan(() -> matriculaRepository.findDTOByAlunoId(4242L), 4242L);
+    }
+
+    @Test
+    void matriculasPorCurso() {
+        assertSemSeqScan(() -> matriculaRepository.findByCursoId(1234L), 1234L);
+    }
+
+    @Test
+    void existenciaDeMatriculaNoCurso() {
+        assertSemSeqScan(() -> matriculaRepository.existsByCursoId(1234L), 1234L, 1);
+    }
+
+    @Test
+    void existenciaDeMatriculaDoAlunoNoCurso() {
+        long cursoId = cursoDoAluno(4242, 0);
+        assertSemSeqScan(() -> matriculaRepository.existsByAlunoIdAndCursoId(4242L, cursoId), 4242L, cursoId, 1);
+    }
+
+    @Test
+    void paresAlunoCursoExistentes() {
+        List<Long> alunos = List.of(4242L, 4243L);
+        List<Long> cursos = List.of(cursoDoAluno(4242, 0), cursoDoAluno(4243, 1));
+        assertSemSeqScan(() -> matriculaRepository.findParesExistentes(alunos, cursos),
+                alunos.get(0), alunos.get(1), cursos.get(0), cursos.get(1));
+    }
+
+    @Test
+    void matriculasPorStatus() {
+        assertSemSeqScan(() -> matriculaRepository.findByStatusPagamento(StatusPagamento.ATRASADO),
+                StatusPagamento.ATRASADO);
+    }
+
+    @Test
+    void pendentesVencidasAntesDeUmaData() {
+        LocalDate limite = vencimentoDoAluno(93_000);
+        assertSemSeqScan(() -> matriculaRepository.findByDataVencimentoBeforeAndStatusPagamento(
+                limite, StatusPagamento.PENDENTE), limite, StatusPagamento.PENDENTE);
+    }
+
+    @Test
+    void blocoDaRotinaDeInadimplencia() {
+        LocalDate hoje = vencimentoDoAluno(96_000);
+        assertSemSeqScan(() -> matriculaRepository.findVencidasParaAtraso(hoje, Limit.of(5000)), hoje, 5000);
+    }
+
+    // Mesma distribuição usada em popularBase()
+    private static long cursoDoAluno(int pessoaId, int k) {
+        return (pessoaId * 3L + k) % CURSOS + 1;
+    }
+
+    private static LocalDate vencimentoDoAluno(int pessoaId) {
+        return INICIO.plusDays(pessoaId / 150 + 30);
+    }
+
+    /**
+     * Executa a consulta pelo repositório, captura o SQL gerado e verifica o plano com os valores informados,
+     * na ordem dos parâmetros do SQL (incluindo o limite de linhas, quando houver).
+     */
+    private void assertSemSeqScan(Runnable consulta, Object... valores) {
+        SqlCapturado.limpar();
+        transactionTemplate.executeWithoutResult(status -> consulta.run());
+        String sql = SqlCapturado.ultimo();
+
+        String plano = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + preencher(sql, valores), String.class);
+        List<String> varreduras = new ArrayList<>();
+        coletarSeqScans(lerJson(plano).get(0).get("Plan"), varreduras);
+        assertTrue(varreduras.isEmpty(), "Seq Scan em " + varreduras + "\n" + sql + "\n" + plano);
+    }
+
+    // Troca os parâmetros (?) pelos valores, para o planejador estimar com os dados reais
+    private static String preencher(String sql, Object... valores) {
+        StringBuilder preenchido = new StringBuilder();
+        int usados = 0;
+        for (char caractere : sql.toCharArray()) {
+            if (caractere == '?') {
+                preenchido.append(usados < valores.length ? literal(valores[usados]) : "?");
+                usados++;
+            } else {
+                preenchido.append(caractere);
+            }
+        }
+        assertEquals(valores.length, usados, "Quantidade de parâmetros do SQL: " + sql);
+        return preenchido.toString();
+    }
+
+    private static String literal(Object valor) {
+        if (valor instanceof Number) {
+            return valor.toString();
+        }
+        if (valor instanceof LocalDate) {
+            return "DATE '" + valor + "'";
+        }
+        if (valor instanceof Enum<?> constante) {
+            return "'" + constante.name() + "'";
+        }
+        return "'" + valor.toString().replace("'", "''") + "'";
+    }
+
+    private static void coletarSeqScans(JsonNode no, List<String> varreduras) {
+        if ("Seq Scan".equals(no.path("Node Type").asText())) {
+            varreduras.add(no.path("Relation Name").asText());
+        }
+        for (JsonNode filho : no.path("Plans")) {
+            coletarSeqScans(filho, varreduras);
+        }
+    }
+
+    private JsonNode lerJson(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (Exception e) {
+            throw new IllegalStateException("Plano inválido: " + json, e);
+        }
+    }
+}
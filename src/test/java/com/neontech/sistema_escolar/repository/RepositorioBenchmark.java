@@ -0,0 +1,120 @@
+package com.neontech.sistema_escolar.repository;
+
+import com.neontech.sistema_escolar.SistemaEscolarApplication;
+import com.neontech.sistema_escolar.dto.MatriculaDTO;
+import com.neontech.sistema_escolar.model.Curso;
+import com.neontech.sistema_escolar.model.Matricula;
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks das consultas mais chamadas pela API, com a aplicação completa (Hibernate, caches de segundo nível)
+ * sobre o banco H2 em memória do perfil de testes. Medem o custo da camada de persistência,
+ * não do PostgreSQL; para os planos de execução no PostgreSQL veja {@code PlanoConsultasPostgresTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositorioBenchmark {
+
+    private static final int PESSOAS = 1000;
+    private static final int CURSOS = 50;
+
+    private ConfigurableApplicationContext contexto;
+    private PessoaRepository pessoaRepository;
+    private MatriculaRepository matriculaRepository;
+    private final List<Long> alunoIds = new ArrayList<>();
+    private final List<Long> matriculaIds = new ArrayList<>();
+    private final List<String> cpfs = new ArrayList<>();
+    private int proximo;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(SistemaEscolarApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run();
+        pessoaRepository = contexto.getBean(PessoaRepository.class);
+        matriculaRepository = contexto.getBean(MatriculaRepository.class);
+        CursoRepository cursoRepository = contexto.getBean(CursoRepository.class);
+
+        List<Curso> cursos = new ArrayList<>();
+        for (int i = 1; i <= CURSOS; i++) {
+            cursos.add(new Curso(null, "Curso " + i, null, new BigDecimal("100.00"), 40, true, null));
+        }
+        cursos = cursoRepository.saveAll(cursos);
+
+        // Três matrículas por aluno, em cursos diferentes
+        List<Matricula> matriculas = new ArrayList<>();
+        for (int i = 0; i < PESSOAS; i++) {
+            String cpf = String.format("%03d.%03d.%03d-00", i / 1_000_000, i / 1000 % 1000, i % 1000);
+            Pessoa aluno = pessoaRepository.save(new Pessoa(null, "Aluno " + i, cpf, null, null, null, null));
+            alunoIds.add(aluno.getId());
+            cpfs.add(cpf);
+            for (int k = 0; k < 3; k++) {
+                matriculas.add(new Matricula(null, aluno, cursos.get((i + k * 7) % CURSOS), LocalDate.now(),
+                        new BigDecimal("100.00"), StatusPagamento.PENDENTE, LocalDate.now().plusDays(30), null));
+            }
+        }
+        matriculaRepository.saveAll(matriculas).forEach(matricula -> matriculaIds.add(matricula.getId()));
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    // Percorre os registros em sequência, para não medir sempre a mesma linha
+    private int proximoIndice(int tamanho) {
+        proximo = (proximo + 1) % tamanho;
+        return proximo;
+    }
+
+    @Benchmark
+    public List<MatriculaDTO> matriculasDoAlunoEmDTO() {
+        return matriculaRepository.findDTOByAlunoId(alunoIds.get(proximoIndice(alunoIds.size())));
+    }
+
+    @Benchmark
+    public Optional<MatriculaDTO> matriculaPorIdEmDTO() {
+        return matriculaRepository.findDTOById(matriculaIds.get(proximoIndice(matriculaIds.size())));
+    }
+
+    /** Atendida pelo cache de consultas e pelo cache de segundo nível de Pessoa. */
+    @Benchmark
+    public Optional<Pessoa> pessoaPorCpf() {
+        return pessoaRepository.findByCpf(cpfs.get(proximoIndice(cpfs.size())));
+    }
+
+    @Benchmark
+    public List<Pessoa> paginaDePessoas() {
+        return pessoaRepository.findByIdGreaterThanOrderByIdAsc(
+                alunoIds.get(proximoIndice(alunoIds.size() - 50)), Limit.of(50));
+    }
+}
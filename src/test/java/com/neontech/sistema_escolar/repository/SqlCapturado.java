@@ -0,0 +1,40 @@
+package com.neontech.sistema_escolar.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Guarda o SQL gerado pelo Hibernate, para os testes examinarem o plano das consultas dos repositórios.
+ * Registrado pela propriedade {@code hibernate.session_factory.statement_inspector}.
+ */
+public class SqlCapturado implements StatementInspector {
+
+    private static final List<String> comandos = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (comandos) {
+            comandos.add(sql);
+        }
+        return sql;
+    }
+
+    /** Descarta o SQL capturado até aqui. */
+    public static void limpar() {
+        synchronized (comandos) {
+            comandos.clear();
+        }
+    }
+
+    /** O último comando executado. */
+    public static String ultimo() {
+        synchronized (comandos) {
+            if (comandos.isEmpty()) {
+                throw new IllegalStateException("Nenhum SQL foi executado.");
+            }
+            return comandos.get(comandos.size() - 1);
+        }
+    }
+}
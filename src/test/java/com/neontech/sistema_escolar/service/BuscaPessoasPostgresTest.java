@@ -0,0 +1,96 @@
+package com.neontech.sistema_escolar.service;
+
+import com.neontech.sistema_escolar.dto.PaginaDTO;
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.repository.PessoaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Testes da busca de pessoas, que usa recursos do PostgreSQL (pg_trgm e unaccent) e por isso roda
+ * em um PostgreSQL real com as migrações do Flyway. Precisa de Docker; sem ele os testes são ignorados.
+ */
+@SpringBootTest
+@ActiveProfiles({"test", "postgres"})
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional
+class BuscaPessoasPostgresTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @BeforeEach
+    void setUp() {
+        pessoaRepository.saveAll(List.of(
+                new Pessoa(null, "José da Silva", "123.456.789-09", null, "jose.silva@email.com", null, null),
+                new Pessoa(null, "Joselina Andrade", "111.222.333-44", null, "joselina@email.com", null, null),
+                new Pessoa(null, "Maria Conceição Souza", "987.654.321-00", null, "maria.souza@escola.com.br", null, null),
+                new Pessoa(null, "Ana Paula Souza", "555.666.777-88", null, "anapaula@email.com", null, null),
+                new Pessoa(null, "Pedro Araújo", "999.888.777-66", null, "pedro@email.com", null, null)));
+        pessoaRepository.flush();
+    }
+
+    @Test
+    void buscaPorNomeOrdenaPelaSemelhanca() {
+        List<String> nomes = nomes(pessoaService.buscar("jose", null, 10));
+
+        assertEquals(List.of("José da Silva", "Joselina Andrade"), nomes);
+    }
+
+    @Test
+    void buscaPorNomeIgnoraAcentosEMaiusculas() {
+        assertEquals(List.of("Maria Conceição Souza"), nomes(pessoaService.buscar("CONCEICAO", null, 10)));
+        assertEquals(List.of("Pedro Araújo"), nomes(pessoaService.buscar("araujo", null, 10)));
+    }
+
+    @Test
+    void buscaPorEmail() {
+        assertEquals(List.of("Maria Conceição Souza"), nomes(pessoaService.buscar("souza@escola", null, 10)));
+    }
+
+    @Test
+    void buscaPorTrechoDoCpfComOuSemPontuacao() {
+        assertEquals(List.of("José da Silva"), nomes(pessoaService.buscar("456.789", null, 10)));
+        assertEquals(List.of("Maria Conceição Souza"), nomes(pessoaService.buscar("98765", null, 10)));
+    }
+
+    @Test
+    void buscaPaginadaPeloCursor() {
+        PaginaDTO<Pessoa> primeira = pessoaService.buscar("souza", null, 1);
+        assertEquals(1, primeira.getItens().size());
+        assertNotNull(primeira.getProximoCursor());
+
+        PaginaDTO<Pessoa> segunda = pessoaService.buscar("souza", primeira.getProximoCursor(), 1);
+        assertEquals(1, segunda.getItens().size());
+        assertNull(segunda.getProximoCursor());
+
+        assertEquals(Set.of("Maria Conceição Souza", "Ana Paula Souza"),
+                Set.of(primeira.getItens().get(0).getNome(), segunda.getItens().get(0).getNome()));
+    }
+
+    private static List<String> nomes(PaginaDTO<Pessoa> pagina) {
+        return pagina.getItens().stream().map(Pessoa::getNome).toList();
+    }
+}
@@ -0,0 +1,147 @@
+package com.neontech.sistema_escolar.service;
+
+import com.neontech.sistema_escolar.dto.MatriculaDTO;
+import com.neontech.sistema_escolar.model.Curso;
+import com.neontech.sistema_escolar.model.Matricula;
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import com.neontech.sistema_escolar.repository.CursoRepository;
+import com.neontech.sistema_escolar.repository.MatriculaRepository;
+import com.neontech.sistema_escolar.repository.PessoaRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do cache de segundo nível e do cache de consultas do Hibernate.
+ * Sem transação de teste: os caches só são populados com dados já confirmados (commit).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CacheSegundoNivelTest {
+
+    @Autowired
+    private MatriculaService matriculaService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SessionFactory sessionFactory;
+
+    private Statistics statistics;
+
+    private Long matriculaId;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+
+        Pessoa aluno = pessoaRepository.save(new Pessoa(null, "Ana Costa", "555.555.555-55",
+                LocalDate.of(2002, 2, 2), "ana@email.com", null, null));
+        Curso curso = cursoRepository.save(new Curso(null, "Redes", "Fundamentos de redes",
+                new BigDecimal("250.00"), 40, true, null));
+        matriculaId = matriculaRepository.save(new Matricula(null, aluno, curso, LocalDate.now(),
+                new BigDecimal("250.00"), StatusPagamento.PENDENTE, LocalDate.now().plusDays(30), null)).getId();
+
+        // Começa com os caches vazios
+        sessionFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        matriculaRepository.deleteAll();
+        pessoaRepository.deleteAll();
+        cursoRepository.deleteAll();
+        sessionFactory.getCache().evictAll();
+    }
+
+    @Test
+    void buscaPorCpfRepetidaNaoVoltaAoBanco() {
+        assertTrue(pessoaRepository.findByCpf("555.555.555-55").isPresent());
+        long consultasPrimeiraChamada = statistics.getPrepareStatementCount();
+
+        assertTrue(pessoaRepository.findByCpf("555.555.555-55").isPresent());
+        long consultasSegundaChamada = statistics.getPrepareStatementCount() - consultasPrimeiraChamada;
+
+        assertEquals(1, consultasPrimeiraChamada);
+        assertEquals(0, consultasSegundaChamada);
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void buscarMatriculaPorIdVeAlteracoesFeitasForaDoHibernate() {
+        assertEquals(StatusPagamento.PENDENTE,
+                matriculaService.buscarPorId(matriculaId).orElseThrow().getStatusPagamento());
+
+        // Como um pagamento gravado por outra instância da aplicação, que não invalida o cache desta
+        jdbcTemplate.update("update matriculas set status_pagamento = 'PAGO', versao = versao + 1 where id = ?",
+                matriculaId);
+
+        MatriculaDTO atualizada = matriculaService.buscarPorId(matriculaId).orElseThrow();
+        assertEquals(StatusPagamento.PAGO, atualizada.getStatusPagamento());
+        assertEquals(1, atualizada.getVersao());
+    }
+
+    @Test
+    void associacoesDaMatriculaSaoResolvidasPeloCacheDeSegundoNivel() {
+        long consultasPrimeiraLeitura = contarConsultasAoLerMatriculaComAssociacoes();
+        long consultasSegundaLeitura = contarConsultasAoLerMatriculaComAssociacoes();
+
+        // Primeira leitura: matrícula + aluno + curso. Depois disso aluno e curso vêm da memória.
+        assertEquals(3, consultasPrimeiraLeitura);
+        assertEquals(1, consultasSegundaLeitura);
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void alteracaoNaMatriculaInvalidaOCacheDeConsultas() {
+        matriculaService.buscarPorId(matriculaId);
+
+        transactionTemplate.executeWithoutResult(status -> matriculaRepository.findById(matriculaId)
+                .orElseThrow().setStatusPagamento(StatusPagamento.PAGO));
+
+        assertEquals(StatusPagamento.PAGO, matriculaService.buscarPorId(matriculaId).orElseThrow().getStatusPagamento());
+    }
+
+    // Cada leitura acontece em uma transação (e contexto de persistência) nova, como em requisições distintas
+    private long contarConsultasAoLerMatriculaComAssociacoes() {
+        long antes = statistics.getPrepareStatementCount();
+        transactionTemplate.executeWithoutResult(status -> {
+            Matricula matricula = matriculaRepository.findById(matriculaId).orElseThrow();
+            assertEquals("Ana Costa", matricula.getAluno().getNome());
+            assertEquals("Redes", matricula.getCurso().getNome());
+        });
+        return statistics.getPrepareStatementCount() - antes;
+    }
+}
@@ -0,0 +1,223 @@
+package com.neontech.sistema_escolar.service;
+
+import com.neontech.sistema_escolar.dto.ConfirmacaoPagamentoDTO;
+import com.neontech.sistema_escolar.dto.RecebimentoConfirmacoesDTO;
+import com.neontech.sistema_escolar.model.Curso;
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.model.ResumoFinanceiroCurso;
+import com.neontech.sistema_escolar.model.ResumoFinanceiroCursoId;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import com.neontech.sistema_escolar.repository.CursoRepository;
+import com.neontech.sistema_escolar.repository.MatriculaRepository;
+import com.neontech.sistema_escolar.repository.PessoaRepository;
+import com.neontech.sistema_escolar.repository.ResumoFinanceiroCursoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do recebimento de confirmações de pagamento.
+ * Sem transação de teste: a gravação acontece na thread da fila, com a sua própria transação.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ConfirmacaoPagamentoServiceImplTest {
+
+    // Limite de espera pela thread de gravação; o lote é gravado em até espera-lote (200ms)
+    private static final long ESPERA_GRAVACAO_MS = 5000;
+
+    @Autowired
+    private ConfirmacaoPagamentoService confirmacaoPagamentoService;
+
+    @Autowired
+    private MatriculaService matriculaService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private ResumoFinanceiroCursoRepository resumoFinanceiroCursoRepository;
+
+    @Autowired
+    private ResumoFinanceiroService resumoFinanceiroService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        matriculaRepository.deleteAll();
+        pessoaRepository.deleteAll();
+        cursoRepository.deleteAll();
+        resumoFinanceiroCursoRepository.deleteAll();
+    }
+
+    @Test
+    void confirmacoesSaoGravadasEmLoteEChavesRepetidasDescartadas() throws Exception {
+        Curso curso = cursoRepository.save(new Curso(null, "Banco de Dados", "Modelagem e SQL",
+                new BigDecimal("250.00"), 40, true, null));
+        List<Long> matriculaIds = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            Pessoa aluno = pessoaRepository.save(new Pessoa(null, "Aluno " + i, "222.222.222-2" + i,
+                    LocalDate.of(2001, 2, i), "aluno" + i + "@email.com", null, null));
+            matriculaIds.add(matriculaService.realizarMatricula(aluno.getId(), curso.getId(),
+                    new BigDecimal("250.00"), LocalDate.now().plusDays(30)).getId());
+        }
+
+        Optional<RecebimentoConfirmacoesDTO> recebimento = confirmacaoPagamentoService.receber(List.of(
+                new ConfirmacaoPagamentoDTO("gw-1", matriculaIds.get(0)),
+                new ConfirmacaoPagamentoDTO("gw-2", matriculaIds.get(1)),
+                new ConfirmacaoPagamentoDTO("gw-2", matriculaIds.get(1))));
+        // Reenvio do gateway com a mesma chave: descartado antes de entrar na fila
+        Optional<RecebimentoConfirmacoesDTO> reenvio = confirmacaoPagamentoService.receber(List.of(
+                new ConfirmacaoPagamentoDTO("gw-1", matriculaIds.get(0))));
+
+        assertEquals(new RecebimentoConfirmacoesDTO(2, 1), recebimento.orElseThrow());
+        assertEquals(new RecebimentoConfirmacoesDTO(0, 1), reenvio.orElseThrow());
+
+        aguardarPagamento(matriculaIds.get(0));
+        aguardarPagamento(matriculaIds.get(1));
+        assertEquals(StatusPagamento.PENDENTE,
+                matriculaRepository.findById(matriculaIds.get(2)).orElseThrow().getStatusPagamento());
+        assertEquals(1, matriculaRepository.findById(matriculaIds.get(0)).orElseThrow().getVersao());
+
+        ResumoFinanceiroCurso pago = resumoFinanceiroCursoRepository
+                .findById(new ResumoFinanceiroCursoId(curso.getId(), StatusPagamento.PAGO)).orElseThrow();
+        ResumoFinanceiroCurso pendente = resumoFinanceiroCursoRepository
+                .findById(new ResumoFinanceiroCursoId(curso.getId(), StatusPagamento.PENDENTE)).orElseThrow();
+        assertEquals(2, pago.getQuantidade());
+        assertEquals(0, new BigDecimal("500.00").compareTo(pago.getValorTotal()));
+        assertEquals(1, pendente.getQuantidade());
+    }
+
+    @Test
+    void loteComFalhaPassageiraEGravadoNaTentativaSeguinte() throws Exception {
+        Long matriculaId = novaMatricula();
+        // Primeira gravação esbarra em um deadlock; as seguintes funcionam
+        AtomicInteger tentativas = new AtomicInteger();
+        ConfirmacaoPagamentoServiceImpl servico = servicoComTransacao(new TransactionTemplate(transactionManager) {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                if (tentativas.incrementAndGet() == 1) {
+                    throw new CannotAcquireLockException("Deadlock simulado");
+                }
+                return super.execute(action);
+            }
+        });
+        servico.iniciar();
+        try {
+            assertEquals(new RecebimentoConfirmacoesDTO(1, 0), servico.receber(
+                    List.of(new ConfirmacaoPagamentoDTO("gw-retentativa", matriculaId))).orElseThrow());
+
+            aguardarPagamento(matriculaId);
+            assertEquals(2, tentativas.get());
+            assertEquals(1, metricas.counter("sistema_escolar.pagamentos.confirmacoes", "resultado", "retentativa").count());
+            assertEquals(0, metricas.counter("sistema_escolar.pagamentos.confirmacoes", "resultado", "falha").count());
+        } finally {
+            servico.encerrar();
+        }
+    }
+
+    @Test
+    void loteComFalhaDefinitivaEDescartadoELiberaAsChaves() throws Exception {
+        Long matriculaId = novaMatricula();
+        AtomicInteger tentativas = new AtomicInteger();
+        ConfirmacaoPagamentoServiceImpl servico = servicoComTransacao(new TransactionTemplate(transactionManager) {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                tentativas.incrementAndGet();
+                throw new IllegalStateException("Falha que não se resolve repetindo");
+            }
+        });
+        servico.iniciar();
+        try {
+            servico.receber(List.of(new ConfirmacaoPagamentoDTO("gw-definitiva", matriculaId)));
+
+            Counter falhas = metricas.counter("sistema_escolar.pagamentos.confirmacoes", "resultado", "falha");
+            long limite = System.currentTimeMillis() + ESPERA_GRAVACAO_MS;
+            while (falhas.count() < 1) {
+                assertTrue(System.currentTimeMillis() < limite, "Lote não descartado a tempo");
+                Thread.sleep(50);
+            }
+            assertEquals(1, tentativas.get());
+            assertEquals(StatusPagamento.PENDENTE,
+                    matriculaRepository.findById(matriculaId).orElseThrow().getStatusPagamento());
+            // A chave foi liberada: o reenvio é aceito
+            assertEquals(new RecebimentoConfirmacoesDTO(1, 0), servico.receber(
+                    List.of(new ConfirmacaoPagamentoDTO("gw-definitiva", matriculaId))).orElseThrow());
+        } finally {
+            servico.encerrar();
+        }
+    }
+
+    @Test
+    void receberSemEspacoNaFilaNaoAceitaNenhuma() {
+        // A fila dos testes comporta 100 confirmações. As aceitas ficam para a thread de gravação do contexto
+        // compartilhado: IDs negativos não existem, para não pagarem matrículas de outros testes
+        List<ConfirmacaoPagamentoDTO> confirmacoes = new ArrayList<>();
+        for (int i = 1; i <= 101; i++) {
+            confirmacoes.add(new ConfirmacaoPagamentoDTO("cheia-" + i, (long) -i));
+        }
+
+        assertTrue(confirmacaoPagamentoService.receber(confirmacoes).isEmpty());
+        // As chaves não ficaram registradas: o reenvio de parte delas é aceito
+        assertEquals(new RecebimentoConfirmacoesDTO(10, 0),
+                confirmacaoPagamentoService.receber(confirmacoes.subList(0, 10)).orElseThrow());
+    }
+
+    @Test
+    void receberConfirmacaoSemChaveLancaExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> confirmacaoPagamentoService.receber(
+                List.of(new ConfirmacaoPagamentoDTO(null, 1L))));
+    }
+
+    // Instância própria, com a transação de gravação do teste, esperas curtas e métricas separadas
+    private ConfirmacaoPagamentoServiceImpl servicoComTransacao(TransactionTemplate transactionTemplate) {
+        return new ConfirmacaoPagamentoServiceImpl(matriculaRepository, resumoFinanceiroService, transactionTemplate,
+                metricas, 100, 500, Duration.ofMillis(50), Duration.ofHours(1), 1000,
+                Duration.ofMillis(50), Duration.ofSeconds(1));
+    }
+
+    private Long novaMatricula() {
+        Curso curso = cursoRepository.save(new Curso(null, "Redes", null, new BigDecimal("180.00"), 40, true, null));
+        Pessoa aluno = pessoaRepository.save(new Pessoa(null, "Otávio Reis", "323.232.323-23", null, null, null, null));
+        return matriculaService.realizarMatricula(aluno.getId(), curso.getId(),
+                new BigDecimal("180.00"), LocalDate.now().plusDays(30)).getId();
+    }
+
+    private void aguardarPagamento(Long matriculaId) throws InterruptedException {
+        long limite = System.currentTimeMillis() + ESPERA_GRAVACAO_MS;
+        while (matriculaRepository.findById(matriculaId).orElseThrow().getStatusPagamento() != StatusPagamento.PAGO) {
+            assertTrue(System.currentTimeMillis() < limite, "Confirmação não gravada a tempo");
+            Thread.sleep(50);
+        }
+    }
+}
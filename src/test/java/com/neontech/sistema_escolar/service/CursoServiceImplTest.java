@@ -0,0 +1,93 @@
+package com.neontech.sistema_escolar.service;
+
+import com.neontech.sistema_escolar.model.Curso;
+import com.neontech.sistema_escolar.repository.CursoRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do serviço de cursos, com foco no cache do catálogo.
+ * Sem transação de teste: o cache só é limpo depois do commit das alterações.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CursoServiceImplTest {
+
+    @Autowired
+    private CursoService cursoService;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    private Curso curso;
+
+    @BeforeEach
+    void setUp() {
+        limparCaches();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        curso = cursoRepository.save(new Curso(null, "Banco de Dados", "SQL e modelagem",
+                new BigDecimal("300.00"), 60, true, null));
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cursoRepository.deleteAll();
+        limparCaches();
+    }
+
+    @Test
+    void listarAtivosConsultaOBancoApenasUmaVez() {
+        List<Curso> primeira = cursoService.listarAtivos();
+        List<Curso> segunda = cursoService.listarAtivos();
+
+        assertEquals(1, primeira.size());
+        assertEquals(primeira, segunda);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void buscarPorIdUsaOCache() {
+        cursoService.buscarPorId(curso.getId());
+        cursoService.buscarPorId(curso.getId());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void alterarStatusInvalidaOCache() {
+        assertEquals(1, cursoService.listarAtivos().size());
+
+        cursoService.alterarStatus(curso.getId(), false);
+
+        assertTrue(cursoService.listarAtivos().isEmpty());
+        assertFalse(cursoService.buscarPorId(curso.getId()).orElseThrow().isAtivo());
+    }
+
+    private void limparCaches() {
+        cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+    }
+}
@@ -0,0 +1,108 @@
+package com.neontech.sistema_escolar.service;
+
+import com.neontech.sistema_escolar.dto.ExecucaoInadimplenciaDTO;
+import com.neontech.sistema_escolar.model.Curso;
+import com.neontech.sistema_escolar.model.Matricula;
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import com.neontech.sistema_escolar.repository.CursoRepository;
+import com.neontech.sistema_escolar.repository.MatriculaRepository;
+import com.neontech.sistema_escolar.repository.PessoaRepository;
+import com.neontech.sistema_escolar.repository.ResumoFinanceiroCursoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes da rotina de inadimplência.
+ * Sem transação de teste: a rotina confirma cada bloco na sua própria transação.
+ */
+@SpringBootTest(properties = "sistema-escolar.inadimplencia.tamanho-bloco=3")
+@ActiveProfiles("test")
+class InadimplenciaServiceImplTest {
+
+    @Autowired
+    private InadimplenciaService inadimplenciaService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private ResumoFinanceiroCursoRepository resumoFinanceiroCursoRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        LocalDate hoje = LocalDate.now();
+        Pessoa aluno = pessoaRepository.save(new Pessoa(null, "Eduarda Reis", "777.777.777-77",
+                LocalDate.of(2003, 3, 3), "eduarda@email.com", null, null));
+        // 7 vencidas e pendentes, 1 vencida e paga, 1 pendente vencendo hoje e 1 pendente a vencer
+        for (int i = 1; i <= 10; i++) {
+            Curso curso = cursoRepository.save(new Curso(null, "Curso " + i, null, new BigDecimal("100.00"), 40, true, null));
+            StatusPagamento status = i == 8 ? StatusPagamento.PAGO : StatusPagamento.PENDENTE;
+            LocalDate vencimento = switch (i) {
+                case 9 -> hoje;
+                case 10 -> hoje.plusDays(5);
+                default -> hoje.minusDays(i);
+            };
+            matriculaRepository.save(new Matricula(null, aluno, curso, hoje.minusMonths(1),
+                    new BigDecimal("100.00"), status, vencimento, null));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        matriculaRepository.deleteAll();
+        pessoaRepository.deleteAll();
+        cursoRepository.deleteAll();
+        resumoFinanceiroCursoRepository.deleteAll();
+    }
+
+    @Test
+    void marcarAtrasadasAlteraApenasPendentesVencidasEmBlocos() {
+        double contadorAntes = meterRegistry.counter("sistema_escolar.inadimplencia.matriculas_atrasadas").count();
+
+        ExecucaoInadimplenciaDTO execucao = inadimplenciaService.marcarAtrasadas("manual").orElseThrow();
+
+        assertTrue(execucao.isSucesso());
+        assertEquals(7, execucao.getMatriculasAtualizadas());
+        assertEquals(3, execucao.getBlocos()); // 3 + 3 + 1
+        assertEquals(7, matriculaRepository.findByStatusPagamento(StatusPagamento.ATRASADO).size());
+        assertEquals(1, matriculaRepository.findByStatusPagamento(StatusPagamento.PAGO).size());
+        assertEquals(2, matriculaRepository.findByStatusPagamento(StatusPagamento.PENDENTE).size());
+        assertEquals(7, meterRegistry.counter("sistema_escolar.inadimplencia.matriculas_atrasadas").count() - contadorAntes);
+    }
+
+    @Test
+    void execucoesFicamNoHistoricoDaMaisNovaParaAMaisAntiga() {
+        inadimplenciaService.marcarAtrasadas("manual");
+        inadimplenciaService.marcarAtrasadas("agendada");
+
+        List<ExecucaoInadimplenciaDTO> execucoes = inadimplenciaService.listarExecucoes();
+
+        assertEquals("agendada", execucoes.get(0).getOrigem());
+        assertEquals(0, execucoes.get(0).getMatriculasAtualizadas()); // Nada mais a marcar
+        assertEquals(1, execucoes.get(0).getBlocos());
+        assertEquals("manual", execucoes.get(1).getOrigem());
+        assertEquals(7, execucoes.get(1).getMatriculasAtualizadas());
+    }
+}
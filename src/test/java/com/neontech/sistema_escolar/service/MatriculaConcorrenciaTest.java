@@ -0,0 +1,182 @@
+package com.neontech.sistema_escolar.service;
+
+import com.neontech.sistema_escolar.model.Curso;
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.model.ResumoFinanceiroCurso;
+import com.neontech.sistema_escolar.model.ResumoFinanceiroCursoId;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import com.neontech.sistema_escolar.repository.CursoRepository;
+import com.neontech.sistema_escolar.repository.MatriculaRepository;
+import com.neontech.sistema_escolar.repository.PessoaRepository;
+import com.neontech.sistema_escolar.repository.ResumoFinanceiroCursoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes da matrícula sob concorrência.
+ * Sem transação de teste: cada thread precisa da sua própria transação, confirmada no banco.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MatriculaConcorrenciaTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private MatriculaService matriculaService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private ResumoFinanceiroCursoRepository resumoFinanceiroCursoRepository;
+
+    @AfterEach
+    void tearDown() {
+        matriculaRepository.deleteAll();
+        pessoaRepository.deleteAll();
+        cursoRepository.deleteAll();
+        resumoFinanceiroCursoRepository.deleteAll();
+    }
+
+    @Test
+    void requisicoesSimultaneasParaOMesmoParGravamUmaUnicaMatricula() throws Exception {
+        Pessoa aluno = pessoaRepository.save(new Pessoa(null, "Carlos Dias", "666.666.666-66",
+                LocalDate.of(1998, 6, 6), "carlos@email.com", null, null));
+        Curso curso = cursoRepository.save(new Curso(null, "Algoritmos", "Estruturas de dados",
+                new BigDecimal("200.00"), 60, true, null));
+
+        // Todas as threads esperam a largada para chegarem juntas ao INSERT
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> tentativas = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                tentativas.add(executor.submit((Callable<?>) () -> {
+                    largada.await();
+                    return matriculaService.realizarMatricula(aluno.getId(), curso.getId(),
+                            new BigDecimal("200.00"), LocalDate.now().plusDays(30));
+                }));
+            }
+            largada.countDown();
+
+            int sucessos = 0;
+            for (Future<?> tentativa : tentativas) {
+                try {
+                    tentativa.get();
+                    sucessos++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(DataIntegrityViolationException.class, e.getCause());
+                    assertEquals("Aluno já matriculado neste curso.", e.getCause().getMessage());
+                }
+            }
+
+            assertEquals(1, sucessos);
+            assertEquals(1, matriculaRepository.findByAlunoId(aluno.getId()).size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void pagamentosSimultaneosMovemOValorUmaUnicaVez() throws Exception {
+        Pessoa aluno = pessoaRepository.save(new Pessoa(null, "Daniela Reis", "777.777.777-77",
+                LocalDate.of(1999, 7, 7), "daniela@email.com", null, null));
+        Curso curso = cursoRepository.save(new Curso(null, "Redes", "Protocolos e roteamento",
+                new BigDecimal("300.00"), 60, true, null));
+        Long matriculaId = matriculaService.realizarMatricula(aluno.getId(), curso.getId(),
+                new BigDecimal("300.00"), LocalDate.now().plusDays(30)).getId();
+
+        // Metade das confirmações chega com If-Match da versão lida (0), a outra metade sem
+        List<Boolean> resultados = executarJuntas(i -> {
+            Long versao = i % 2 == 0 ? 0L : null;
+            try {
+                matriculaService.atualizarStatusPagamento(matriculaId, StatusPagamento.PAGO, versao);
+                return true;
+            } catch (OptimisticLockingFailureException e) {
+                return false;
+            }
+        });
+
+        // Sem If-Match a confirmação repetida é aceita; com If-Match só passa quem chegou antes da primeira
+        assertTrue(resultados.stream().filter(sucesso -> sucesso).count() >= THREADS / 2);
+        assertEquals(StatusPagamento.PAGO, matriculaRepository.findById(matriculaId).orElseThrow().getStatusPagamento());
+        assertEquals(1, matriculaRepository.findById(matriculaId).orElseThrow().getVersao());
+        ResumoFinanceiroCurso pago = resumoFinanceiroCursoRepository
+                .findById(new ResumoFinanceiroCursoId(curso.getId(), StatusPagamento.PAGO)).orElseThrow();
+        ResumoFinanceiroCurso pendente = resumoFinanceiroCursoRepository
+                .findById(new ResumoFinanceiroCursoId(curso.getId(), StatusPagamento.PENDENTE)).orElseThrow();
+        assertEquals(1, pago.getQuantidade());
+        assertEquals(0, pendente.getQuantidade());
+    }
+
+    @Test
+    void primeirasMatriculasSimultaneasEmCursoSemTotaisSomamTodas() throws Exception {
+        // Gravado pelo repositório: o curso não tem as linhas zeradas do resumo
+        Curso curso = cursoRepository.save(new Curso(null, "Compiladores", null, new BigDecimal("100.00"), 60, true, null));
+        List<Long> alunoIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            alunoIds.add(pessoaRepository.save(new Pessoa(null, "Aluno " + i, "888.888.888-0" + i,
+                    null, null, null, null)).getId());
+        }
+
+        executarJuntas(i -> matriculaService.realizarMatricula(alunoIds.get(i), curso.getId(),
+                new BigDecimal("100.00"), LocalDate.now().plusDays(30)));
+
+        ResumoFinanceiroCurso pendente = resumoFinanceiroCursoRepository
+                .findById(new ResumoFinanceiroCursoId(curso.getId(), StatusPagamento.PENDENTE)).orElseThrow();
+        assertEquals(THREADS, pendente.getQuantidade());
+        assertEquals(0, new BigDecimal("800.00").compareTo(pendente.getValorTotal()));
+    }
+
+    // Dispara a mesma tarefa em todas as threads ao mesmo tempo e devolve os resultados na ordem das threads
+    private <T> List<T> executarJuntas(IntFunction<T> tarefa) throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<T>> futuros = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int indice = i;
+                futuros.add(executor.submit(() -> {
+                    largada.await();
+                    return tarefa.apply(indice);
+                }));
+            }
+            largada.countDown();
+            List<T> resultados = new ArrayList<>();
+            for (Future<T> futuro : futuros) {
+                resultados.add(futuro.get());
+            }
+            return resultados;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
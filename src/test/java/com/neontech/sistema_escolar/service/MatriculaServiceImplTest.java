@@ -0,0 +1,165 @@
+package com.neontech.sistema_escolar.service;
+
+import com.neontech.sistema_escolar.dto.MatriculaDTO;
+import com.neontech.sistema_escolar.dto.NovaMatriculaDTO;
+import com.neontech.sistema_escolar.dto.ResultadoLoteDTO;
+import com.neontech.sistema_escolar.model.Curso;
+import com.neontech.sistema_escolar.model.Matricula;
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import com.neontech.sistema_escolar.repository.CursoRepository;
+import com.neontech.sistema_escolar.repository.MatriculaRepository;
+import com.neontech.sistema_escolar.repository.PessoaRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do serviço de matrículas contra o banco H2 do perfil de testes.
+ * As estatísticas do Hibernate são usadas para garantir a quantidade de consultas por operação.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class MatriculaServiceImplTest {
+
+    @Autowired
+    private MatriculaService matriculaService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    private Pessoa aluno;
+
+    private final List<Curso> cursos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        aluno = pessoaRepository.save(new Pessoa(null, "Maria Souza", "123.456.789-00",
+                LocalDate.of(2000, 5, 10), "maria@email.com", "11999990000", null));
+
+        // Vários cursos para que o N+1 apareceria caso as associações fossem carregadas uma a uma
+        for (int i = 1; i <= 5; i++) {
+            Curso curso = cursoRepository.save(new Curso(null, "Curso " + i, "Descrição " + i,
+                    new BigDecimal("100.00"), 40, true, null));
+            cursos.add(curso);
+            matriculaRepository.save(new Matricula(null, aluno, curso, LocalDate.now(),
+                    new BigDecimal("90.00"), StatusPagamento.PENDENTE, LocalDate.now().plusDays(30), null));
+        }
+
+        // Envia os inserts e limpa o contexto de persistência para simular uma requisição nova
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void listarMatriculasPorAlunoExecutaUmaUnicaConsulta() {
+        List<MatriculaDTO> matriculas = matriculaService.listarMatriculasPorAluno(aluno.getId());
+
+        assertEquals(5, matriculas.size());
+        assertEquals("Maria Souza", matriculas.get(0).getAluno().getNome());
+        assertEquals("Curso 1", matriculas.get(0).getCurso().getNome());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void buscarPorIdExecutaUmaUnicaConsulta() {
+        Long id = matriculaRepository.findByAlunoId(aluno.getId()).get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        Optional<MatriculaDTO> matricula = matriculaService.buscarPorId(id);
+
+        assertTrue(matricula.isPresent());
+        assertEquals("123.456.789-00", matricula.get().getAluno().getCpf());
+        assertEquals(StatusPagamento.PENDENTE, matricula.get().getStatusPagamento());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void realizarMatriculasEmLoteInsereValidasERejeitaCadaLinhaInvalida() {
+        Pessoa outroAluno = pessoaRepository.save(new Pessoa(null, "João Lima", "987.654.321-00",
+                LocalDate.of(1999, 8, 20), "joao@email.com", null, null));
+        Curso inativo = cursoRepository.save(new Curso(null, "Curso antigo", null,
+                new BigDecimal("80.00"), 20, false, null));
+        Long cursoId = cursos.get(0).getId();
+        BigDecimal valor = new BigDecimal("90.00");
+        LocalDate vencimento = LocalDate.now().plusDays(30);
+
+        List<ResultadoLoteDTO> resultados = matriculaService.realizarMatriculasEmLote(List.of(
+                new NovaMatriculaDTO(outroAluno.getId(), cursoId, valor, vencimento),            // ok
+                new NovaMatriculaDTO(outroAluno.getId(), cursoId, valor, vencimento),            // repetida no lote
+                new NovaMatriculaDTO(aluno.getId(), cursoId, valor, vencimento),                 // já existe no banco
+                new NovaMatriculaDTO(-1L, cursoId, valor, vencimento),                           // aluno inexistente
+                new NovaMatriculaDTO(outroAluno.getId(), inativo.getId(), valor, vencimento),    // curso inativo
+                new NovaMatriculaDTO(outroAluno.getId(), -1L, valor, vencimento),                // curso inexistente
+                new NovaMatriculaDTO(outroAluno.getId(), cursos.get(1).getId(), null, vencimento), // sem valor
+                new NovaMatriculaDTO(outroAluno.getId(), cursos.get(2).getId(), valor, vencimento) // ok
+        ));
+
+        assertEquals(8, resultados.size());
+        assertTrue(resultados.get(0).isSucesso());
+        assertNotNull(resultados.get(0).getId());
+        for (int i = 1; i <= 6; i++) {
+            assertFalse(resultados.get(i).isSucesso(), "linha " + i);
+            assertEquals(i, resultados.get(i).getIndice());
+        }
+        assertEquals("Aluno já matriculado neste curso.", resultados.get(1).getMensagem());
+        assertEquals("Aluno já matriculado neste curso.", resultados.get(2).getMensagem());
+        assertTrue(resultados.get(7).isSucesso());
+        assertEquals(2, matriculaRepository.findByAlunoId(outroAluno.getId()).size());
+    }
+
+    @Test
+    void realizarMatriculaRepetidaLancaChaveDuplicada() {
+        DuplicateKeyException erro = assertThrows(DuplicateKeyException.class, () -> matriculaService.realizarMatricula(
+                aluno.getId(), cursos.get(0).getId(), new BigDecimal("90.00"), LocalDate.now().plusDays(30)));
+
+        assertEquals("Aluno já matriculado neste curso.", erro.getMessage());
+    }
+
+    @Test
+    void realizarMatriculaSemValorNaoEConfundidaComMatriculaRepetida() {
+        Pessoa outroAluno = pessoaRepository.save(new Pessoa(null, "João Lima", "987.654.321-00",
+                LocalDate.of(1999, 8, 20), "joao@email.com", null, null));
+
+        DataIntegrityViolationException erro = assertThrows(DataIntegrityViolationException.class, () ->
+                matriculaService.realizarMatricula(outroAluno.getId(), cursos.get(0).getId(), null, null));
+
+        assertFalse(erro instanceof DuplicateKeyException);
+    }
+}
@@ -0,0 +1,137 @@
+package com.neontech.sistema_escolar.service;
+
+import com.neontech.sistema_escolar.dto.PaginaDTO;
+import com.neontech.sistema_escolar.dto.ResultadoLoteDTO;
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.repository.PessoaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do serviço de pessoas contra o banco H2 do perfil de testes.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class PessoaServiceImplTest {
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= 7; i++) {
+            pessoaRepository.save(new Pessoa(null, "Pessoa " + i, "000.000.000-0" + i,
+                    LocalDate.of(2001, 1, i), "pessoa" + i + "@email.com", null, null));
+        }
+    }
+
+    @Test
+    void listarPaginaPercorreTodosOsRegistrosPeloCursor() {
+        List<String> nomes = new ArrayList<>();
+
+        PaginaDTO<Pessoa> pagina = pessoaService.listarPagina(null, 3);
+        nomes.addAll(pagina.getItens().stream().map(Pessoa::getNome).toList());
+        assertEquals(3, pagina.getItens().size());
+        assertNotNull(pagina.getProximoCursor());
+
+        pagina = pessoaService.listarPagina(pagina.getProximoCursor(), 3);
+        nomes.addAll(pagina.getItens().stream().map(Pessoa::getNome).toList());
+        assertEquals(3, pagina.getItens().size());
+        assertNotNull(pagina.getProximoCursor());
+
+        pagina = pessoaService.listarPagina(pagina.getProximoCursor(), 3);
+        nomes.addAll(pagina.getItens().stream().map(Pessoa::getNome).toList());
+        assertEquals(1, pagina.getItens().size());
+        assertNull(pagina.getProximoCursor());
+
+        assertEquals(List.of("Pessoa 1", "Pessoa 2", "Pessoa 3", "Pessoa 4", "Pessoa 5", "Pessoa 6", "Pessoa 7"), nomes);
+    }
+
+    @Test
+    void listarPaginaRejeitaCursorInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> pessoaService.listarPagina("cursor-invalido!", 3));
+    }
+
+    @Test
+    void percorrerTodosEntregaCadaPessoaEmOrdemDeId() {
+        List<String> nomes = new ArrayList<>();
+
+        pessoaService.percorrerTodos(pessoa -> nomes.add(pessoa.getNome()));
+
+        assertEquals(7, nomes.size());
+        assertEquals("Pessoa 1", nomes.get(0));
+        assertEquals("Pessoa 7", nomes.get(6));
+    }
+
+    @Test
+    void buscarExigeAoMenosTresCaracteres() {
+        // Validado antes da consulta (a busca em si usa recursos do PostgreSQL; ver BuscaPessoasPostgresTest)
+        assertThrows(IllegalArgumentException.class, () -> pessoaService.buscar(" ab ", null, 10));
+        assertThrows(IllegalArgumentException.class, () -> pessoaService.buscar(null, null, 10));
+    }
+
+    @Test
+    void importarRejeitaCpfsJaCadastradosOuRepetidosNoLote() {
+        List<ResultadoLoteDTO> resultados = pessoaService.importar(List.of(
+                new Pessoa(null, "Nova 1", "222.222.222-01", null, null, null, null),  // ok
+                new Pessoa(null, "Nova 2", "000.000.000-01", null, null, null, null),  // já cadastrado
+                new Pessoa(null, "Nova 3", "222.222.222-01", null, null, null, null),  // repetido no lote
+                new Pessoa(null, "  ", "222.222.222-04", null, null, null, null),      // sem nome
+                new Pessoa(null, "Nova 5", null, null, null, null, null)               // sem CPF é permitido
+        ));
+
+        assertEquals(5, resultados.size());
+        assertTrue(resultados.get(0).isSucesso());
+        assertFalse(resultados.get(1).isSucesso());
+        assertEquals("Já existe uma pessoa cadastrada com o CPF: 000.000.000-01", resultados.get(1).getMensagem());
+        assertFalse(resultados.get(2).isSucesso());
+        assertFalse(resultados.get(3).isSucesso());
+        assertTrue(resultados.get(4).isSucesso());
+        assertTrue(pessoaRepository.findByCpf("222.222.222-01").isPresent());
+        assertEquals(9, pessoaRepository.count());
+    }
+
+    @Test
+    void importarCsvAceitaPontoEVirgulaAspasEDataBrasileira() {
+        String csv = "nome;cpf;dataNascimento;email\n"
+                + "\"Silva; Ana\";333.333.333-01;15/03/2005;ana@email.com\n"
+                + "\n"
+                + "Bruno;000.000.000-02;2004-07-01;\n";
+
+        List<ResultadoLoteDTO> resultados = pessoaService.importarCsv(new StringReader(csv));
+
+        assertEquals(2, resultados.size());
+        assertTrue(resultados.get(0).isSucesso());
+        assertFalse(resultados.get(1).isSucesso()); // CPF já cadastrado
+        Pessoa ana = pessoaRepository.findByCpf("333.333.333-01").orElseThrow();
+        assertEquals("Silva; Ana", ana.getNome());
+        assertEquals(LocalDate.of(2005, 3, 15), ana.getDataNascimento());
+    }
+
+    @Test
+    void importarCsvRejeitaDataInvalida() {
+        String csv = "nome,cpf,dataNascimento\nCarla,444.444.444-01,31-02-2000\n";
+
+        assertThrows(IllegalArgumentException.class, () -> pessoaService.importarCsv(new StringReader(csv)));
+    }
+}
@@ -0,0 +1,142 @@
+package com.neontech.sistema_escolar.service;
+
+import com.neontech.sistema_escolar.dto.ResumoFinanceiroCursoDTO;
+import com.neontech.sistema_escolar.dto.ResumoFinanceiroMensalDTO;
+import com.neontech.sistema_escolar.model.Curso;
+import com.neontech.sistema_escolar.model.Matricula;
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import com.neontech.sistema_escolar.repository.CursoRepository;
+import com.neontech.sistema_escolar.repository.MatriculaRepository;
+import com.neontech.sistema_escolar.repository.PessoaRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Testes dos relatórios financeiros contra o banco H2 do perfil de testes.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class RelatorioServiceImplTest {
+
+    private static final LocalDate MAIO = LocalDate.of(2025, 5, 1);
+    private static final LocalDate JUNHO = LocalDate.of(2025, 6, 1);
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    private Curso design;
+
+    private Curso python;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        design = cursoRepository.save(new Curso(null, "Design", null, new BigDecimal("100.00"), 20, true, null));
+        python = cursoRepository.save(new Curso(null, "Python", null, new BigDecimal("200.00"), 40, true, null));
+
+        // Maio: Design 2 pagas + 1 pendente, Python 1 atrasada; junho: Python 1 pendente
+        matricular(1, design, "100.00", StatusPagamento.PAGO, MAIO.withDayOfMonth(10));
+        matricular(2, design, "80.00", StatusPagamento.PAGO, MAIO.withDayOfMonth(10));
+        matricular(3, design, "100.00", StatusPagamento.PENDENTE, MAIO.withDayOfMonth(31));
+        matricular(4, python, "200.00", StatusPagamento.ATRASADO, MAIO.withDayOfMonth(5));
+        matricular(5, python, "150.00", StatusPagamento.PENDENTE, JUNHO.withDayOfMonth(5));
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void resumirPorCursoAgrupaPorCursoEStatusEmUmaUnicaConsulta() {
+        List<ResumoFinanceiroCursoDTO> resumo = relatorioService.resumirPorCurso(
+                DataReferencia.VENCIMENTO, MAIO, MAIO.withDayOfMonth(31));
+
+        // O status é gravado como texto, então a ordem dentro de cada curso é alfabética
+        assertEquals(3, resumo.size());
+        assertResumo(resumo.get(0), design, StatusPagamento.PAGO, 2, "180.00");
+        assertResumo(resumo.get(1), design, StatusPagamento.PENDENTE, 1, "100.00");
+        assertResumo(resumo.get(2), python, StatusPagamento.ATRASADO, 1, "200.00");
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void resumirPorMesSeparaOsMesesDeVencimento() {
+        List<ResumoFinanceiroMensalDTO> resumo = relatorioService.resumirPorMes(
+                DataReferencia.VENCIMENTO, MAIO, JUNHO.withDayOfMonth(30));
+
+        assertEquals(4, resumo.size());
+        assertEquals(5, resumo.get(0).getMes());
+        assertEquals(StatusPagamento.ATRASADO, resumo.get(0).getStatusPagamento());
+        assertEquals(5, resumo.get(1).getMes());
+        assertEquals(StatusPagamento.PAGO, resumo.get(1).getStatusPagamento());
+        assertEquals(2, resumo.get(1).getQuantidade());
+        assertEquals(0, new BigDecimal("180.00").compareTo(resumo.get(1).getValorTotal()));
+        assertEquals(5, resumo.get(2).getMes());
+        assertEquals(StatusPagamento.PENDENTE, resumo.get(2).getStatusPagamento());
+        assertEquals(2025, resumo.get(3).getAno());
+        assertEquals(6, resumo.get(3).getMes());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void resumirPorCursoPelaDataDaMatricula() {
+        // Todas as matrículas foram realizadas em abril
+        List<ResumoFinanceiroCursoDTO> resumo = relatorioService.resumirPorCurso(
+                DataReferencia.MATRICULA, LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 30));
+
+        assertEquals(4, resumo.size());
+        assertResumo(resumo.get(2), python, StatusPagamento.ATRASADO, 1, "200.00");
+    }
+
+    @Test
+    void intervaloInvertidoERejeitado() {
+        assertThrows(IllegalArgumentException.class,
+                () -> relatorioService.resumirPorCurso(DataReferencia.VENCIMENTO, JUNHO, MAIO));
+    }
+
+    private void matricular(int numero, Curso curso, String valor, StatusPagamento status, LocalDate vencimento) {
+        Pessoa aluno = pessoaRepository.save(new Pessoa(null, "Aluno " + numero, "888.888.888-0" + numero,
+                null, null, null, null));
+        matriculaRepository.save(new Matricula(null, aluno, curso, LocalDate.of(2025, 4, 20),
+                new BigDecimal(valor), status, vencimento, null));
+    }
+
+    private static void assertResumo(ResumoFinanceiroCursoDTO resumo, Curso curso, StatusPagamento status,
+                                     long quantidade, String valorTotal) {
+        assertEquals(curso.getId(), resumo.getCursoId());
+        assertEquals(curso.getNome(), resumo.getCursoNome());
+        assertEquals(status, resumo.getStatusPagamento());
+        assertEquals(quantidade, resumo.getQuantidade());
+        assertEquals(0, new BigDecimal(valorTotal).compareTo(resumo.getValorTotal()));
+    }
+}
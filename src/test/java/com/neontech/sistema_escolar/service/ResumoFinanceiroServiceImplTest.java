@@ -0,0 +1,167 @@
+package com.neontech.sistema_escolar.service;
+
+import com.neontech.sistema_escolar.dto.DivergenciaResumoDTO;
+import com.neontech.sistema_escolar.dto.ReconciliacaoResumoDTO;
+import com.neontech.sistema_escolar.dto.ResumoFinanceiroCursoDTO;
+import com.neontech.sistema_escolar.model.Curso;
+import com.neontech.sistema_escolar.model.Matricula;
+import com.neontech.sistema_escolar.model.Pessoa;
+import com.neontech.sistema_escolar.model.StatusPagamento;
+import com.neontech.sistema_escolar.repository.CursoRepository;
+import com.neontech.sistema_escolar.repository.MatriculaRepository;
+import com.neontech.sistema_escolar.repository.PessoaRepository;
+import com.neontech.sistema_escolar.repository.ResumoFinanceiroCursoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes dos totais acumulados por curso: ajustes a cada operação de matrícula e reconciliação.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ResumoFinanceiroServiceImplTest {
+
+    @Autowired
+    private ResumoFinanceiroService resumoFinanceiroService;
+
+    @Autowired
+    private RelatorioService relatorioService;
+
+    @Autowired
+    private MatriculaService matriculaService;
+
+    @Autowired
+    private CursoService cursoService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private ResumoFinanceiroCursoRepository resumoFinanceiroCursoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Curso curso;
+
+    private Pessoa aluno1;
+
+    private Pessoa aluno2;
+
+    @BeforeEach
+    void setUp() {
+        // Pelo serviço, para os totais zerados do curso serem criados
+        curso = cursoService.salvar(new Curso(null, "Marketing Digital", null, new BigDecimal("150.00"), 30, true, null));
+        aluno1 = pessoaRepository.save(new Pessoa(null, "Fernanda Alves", "121.212.121-21", null, null, null, null));
+        aluno2 = pessoaRepository.save(new Pessoa(null, "Gustavo Melo", "131.313.131-31", null, null, null, null));
+    }
+
+    @Test
+    void totaisAcompanhamMatriculaAlteracaoDeStatusECancelamento() {
+        LocalDate vencimento = LocalDate.now().plusDays(30);
+        Matricula primeira = matriculaService.realizarMatricula(aluno1.getId(), curso.getId(), new BigDecimal("100.00"), vencimento);
+        Matricula segunda = matriculaService.realizarMatricula(aluno2.getId(), curso.getId(), new BigDecimal("150.00"), vencimento);
+        assertAcumulado(List.of(linha(StatusPagamento.PENDENTE, 2, "250.00")));
+
+        matriculaService.atualizarStatusPagamento(primeira.getId(), StatusPagamento.PAGO, null);
+        assertAcumulado(List.of(
+                linha(StatusPagamento.PAGO, 1, "100.00"),
+                linha(StatusPagamento.PENDENTE, 1, "150.00")));
+
+        matriculaService.cancelarMatricula(segunda.getId());
+        assertAcumulado(List.of(linha(StatusPagamento.PAGO, 1, "100.00"))); // Totais zerados não aparecem
+
+        assertTrue(divergenciasDoCurso(resumoFinanceiroService.reconciliar()).isEmpty());
+    }
+
+    @Test
+    void reconciliacaoCorrigeEInformaDivergencias() {
+        matriculaService.realizarMatricula(aluno1.getId(), curso.getId(), new BigDecimal("100.00"), null);
+        // Matrícula gravada sem passar pelo serviço: os totais ficam desatualizados
+        matriculaRepository.save(new Matricula(null, aluno2, curso, LocalDate.now(),
+                new BigDecimal("120.00"), StatusPagamento.PAGO, null, null));
+
+        ReconciliacaoResumoDTO reconciliacao = resumoFinanceiroService.reconciliar();
+
+        List<DivergenciaResumoDTO> divergencias = divergenciasDoCurso(reconciliacao);
+        assertEquals(1, divergencias.size());
+        DivergenciaResumoDTO divergencia = divergencias.get(0);
+        assertEquals(curso.getId(), divergencia.getCursoId());
+        assertEquals(StatusPagamento.PAGO, divergencia.getStatusPagamento());
+        assertEquals(0, divergencia.getQuantidadeRegistrada());
+        assertEquals(1, divergencia.getQuantidadeReal());
+        assertAcumulado(List.of(
+                linha(StatusPagamento.PAGO, 1, "120.00"),
+                linha(StatusPagamento.PENDENTE, 1, "100.00")));
+        assertTrue(divergenciasDoCurso(resumoFinanceiroService.reconciliar()).isEmpty());
+    }
+
+    @Test
+    void reconciliacaoEmBlocosCorrigeCadaCursoInclusiveOsSemTotais() {
+        // Curso gravado sem passar pelo serviço: não tem nem as linhas zeradas do resumo
+        Curso semTotais = cursoRepository.save(new Curso(null, "Copywriting", null, new BigDecimal("90.00"), 20, true, null));
+        matriculaRepository.save(new Matricula(null, aluno1, curso, LocalDate.now(),
+                new BigDecimal("100.00"), StatusPagamento.PENDENTE, null, null));
+        matriculaRepository.save(new Matricula(null, aluno2, semTotais, LocalDate.now(),
+                new BigDecimal("90.00"), StatusPagamento.PAGO, null, null));
+        // Um curso por transação
+        ResumoFinanceiroService emBlocos = new ResumoFinanceiroServiceImpl(resumoFinanceiroCursoRepository,
+                matriculaRepository, cursoRepository, transactionTemplate, new SimpleMeterRegistry(), 1);
+
+        List<DivergenciaResumoDTO> divergencias = emBlocos.reconciliar().getDivergencias().stream()
+                .filter(divergencia -> divergencia.getCursoId().equals(curso.getId())
+                        || divergencia.getCursoId().equals(semTotais.getId()))
+                .toList();
+
+        assertEquals(2, divergencias.size(), divergencias.toString());
+        assertAcumulado(List.of(linha(StatusPagamento.PENDENTE, 1, "100.00")));
+        assertEquals(3, resumoFinanceiroCursoRepository.findParaReconciliacao(List.of(semTotais.getId())).size());
+        assertTrue(emBlocos.reconciliar().getDivergencias().stream()
+                .noneMatch(divergencia -> divergencia.getCursoId().equals(semTotais.getId())));
+        assertTrue(divergenciasDoCurso(emBlocos.reconciliar()).isEmpty());
+    }
+
+    // A reconciliação cobre todos os cursos; os testes olham só para o curso que criaram
+    private List<DivergenciaResumoDTO> divergenciasDoCurso(ReconciliacaoResumoDTO reconciliacao) {
+        return reconciliacao.getDivergencias().stream()
+                .filter(divergencia -> divergencia.getCursoId().equals(curso.getId()))
+                .toList();
+    }
+
+    private ResumoFinanceiroCursoDTO linha(StatusPagamento status, long quantidade, String valor) {
+        return new ResumoFinanceiroCursoDTO(curso.getId(), curso.getNome(), status, quantidade, new BigDecimal(valor));
+    }
+
+    // Compara só as linhas do curso do teste; o valor é comparado sem considerar a escala
+    private void assertAcumulado(List<ResumoFinanceiroCursoDTO> esperado) {
+        List<ResumoFinanceiroCursoDTO> acumulado = relatorioService.resumirAcumuladoPorCurso().stream()
+                .filter(resumo -> resumo.getCursoId().equals(curso.getId()))
+                .toList();
+        assertEquals(esperado.size(), acumulado.size(), acumulado.toString());
+        for (int i = 0; i < esperado.size(); i++) {
+            assertEquals(esperado.get(i).getStatusPagamento(), acumulado.get(i).getStatusPagamento());
+            assertEquals(esperado.get(i).getQuantidade(), acumulado.get(i).getQuantidade());
+            assertEquals(0, esperado.get(i).getValorTotal().compareTo(acumulado.get(i).getValorTotal()));
+        }
+    }
+}